@@ -0,0 +1,120 @@
+package twg2.collections.builder;
+
+/** Counters describing the outcome of one or more {@link ListAdd} calls: how many items were added,
+ * how many were skipped because they were null, how many were skipped because the destination already
+ * contained them, and how long the calls took.<br>
+ * An instance can be reused across calls, each call adds its counts to the existing totals until {@link #reset()} is called.
+ * Instances are not thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public final class AddStats {
+
+	/** Receives the counts from each individual {@link ListAdd} call that reports {@link AddStats},
+	 * for exporting to an external metrics system
+	 * @see ListAdd#setStatsListener(Listener)
+	 */
+	@FunctionalInterface
+	public static interface Listener {
+
+		/**
+		 * @param added the number of items added by the call
+		 * @param skippedNull the number of null items skipped by the call
+		 * @param skippedDuplicate the number of items skipped by the call because the destination already contained them
+		 * @param nanos the time the call took in nanoseconds
+		 */
+		public void record(int added, int skippedNull, int skippedDuplicate, long nanos);
+
+	}
+
+
+	private long added;
+	private long skippedNull;
+	private long skippedDuplicate;
+	private long nanos;
+	private int calls;
+
+
+	public AddStats() {
+	}
+
+
+	/** Add the results of one call to this object's totals
+	 */
+	void record(int added, int skippedNull, int skippedDuplicate, long nanos) {
+		this.added += added;
+		this.skippedNull += skippedNull;
+		this.skippedDuplicate += skippedDuplicate;
+		this.nanos += nanos;
+		this.calls++;
+	}
+
+
+	/**
+	 * @return the total number of items added
+	 */
+	public long getAdded() {
+		return added;
+	}
+
+
+	/**
+	 * @return the total number of null items which were not added
+	 */
+	public long getSkippedNull() {
+		return skippedNull;
+	}
+
+
+	/**
+	 * @return the total number of items which were not added because the destination already contained them
+	 */
+	public long getSkippedDuplicate() {
+		return skippedDuplicate;
+	}
+
+
+	/**
+	 * @return the total number of items which were not added
+	 */
+	public long getSkipped() {
+		return skippedNull + skippedDuplicate;
+	}
+
+
+	/**
+	 * @return the total time spent adding items, in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+
+	/**
+	 * @return the number of calls recorded by this object
+	 */
+	public int getCalls() {
+		return calls;
+	}
+
+
+	/** Reset all of the counters to zero
+	 * @return this object
+	 */
+	public AddStats reset() {
+		this.added = 0;
+		this.skippedNull = 0;
+		this.skippedDuplicate = 0;
+		this.nanos = 0;
+		this.calls = 0;
+		return this;
+	}
+
+
+	@Override
+	public String toString() {
+		return "AddStats{added=" + added + ", skippedNull=" + skippedNull + ", skippedDuplicate=" + skippedDuplicate +
+				", nanos=" + nanos + ", calls=" + calls + "}";
+	}
+
+}
@@ -0,0 +1,44 @@
+package twg2.collections.builder;
+
+import java.util.Map;
+import java.util.Set;
+
+/** A map whose values are unique as well as its keys, with an {@link #inverse()} view which maps each value back to its key.
+ * The inverse view shares the map's storage, so changes to either are visible in both.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see HashBiMap
+ * @see MapBuilder#biMap(Map)
+ */
+public interface BiMap<K, V> extends Map<K, V> {
+
+	/** Associate a value with a key
+	 * @return the value previously associated with the key, or null if the key did not exist in this map
+	 * @throws IllegalArgumentException if the value is already associated with a different key
+	 */
+	@Override
+	public V put(K key, V value);
+
+
+	/** Associate a value with a key, removing any existing entry with the same value
+	 * @return the value previously associated with the key, or null if the key did not exist in this map
+	 */
+	public V forcePut(K key, V value);
+
+
+	/**
+	 * @return a view of this map's values, which are unique
+	 */
+	@Override
+	public Set<V> values();
+
+
+	/**
+	 * @return a view of this map with its keys and values swapped, backed by this map, this operation takes constant time
+	 * and the inverse of the returned map is this map
+	 */
+	public BiMap<V, K> inverse();
+
+}
@@ -0,0 +1,324 @@
+package twg2.collections.builder;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+
+/** An immutable grouping of values by key stored in a compressed sparse row (CSR) layout:
+ * one flat array of all the values ordered by group, an offsets array marking where each group starts,
+ * and an open-addressing index of the group keys.
+ * No per-group list objects are stored, {@link List} views of each group are created on request.<br>
+ * Groups are ordered by the first occurrence of their key, values within a group are in encounter order.
+ * Keys are compared using {@link Object#equals(Object)}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of group keys
+ * @param <T> the type of values
+ * @see GroupBy#groupByCompact(Iterable, Function)
+ */
+public final class CompactMultimap<K, T> {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private final Object[] keys;
+	/** group {@code i}'s values are at {@code values[offsets[i]]} (inclusive) to {@code values[offsets[i + 1]]} (exclusive) */
+	private final int[] offsets;
+	private final Object[] values;
+	/** group index + 1 for each occupied slot, 0 for empty slots */
+	private final int[] keyTable;
+	private Map<K, List<T>> mapView;
+
+
+	private CompactMultimap(Object[] keys, int[] offsets, Object[] values, int[] keyTable) {
+		this.keys = keys;
+		this.offsets = offsets;
+		this.values = values;
+		this.keyTable = keyTable;
+	}
+
+
+	/**
+	 * @return the total number of values in all of the groups
+	 */
+	public int size() {
+		return values.length;
+	}
+
+
+	/**
+	 * @return the number of groups
+	 */
+	public int groupCount() {
+		return keys.length;
+	}
+
+
+	/**
+	 * @return the index of the group for a key, or -1 if no group exists for the key
+	 */
+	public int indexOf(Object key) {
+		if(key == null) {
+			return -1;
+		}
+		int[] table = keyTable;
+		int mask = table.length - 1;
+		for(int i = Hashing.mix(key.hashCode()) & mask; ; i = (i + 1) & mask) {
+			int slot = table[i];
+			if(slot == 0) {
+				return -1;
+			}
+			if(keys[slot - 1].equals(key)) {
+				return slot - 1;
+			}
+		}
+	}
+
+
+	public boolean containsKey(Object key) {
+		return indexOf(key) > -1;
+	}
+
+
+	/**
+	 * @return a read-only view of the values for a key, or null if no group exists for the key
+	 */
+	public List<T> get(Object key) {
+		int idx = indexOf(key);
+		return idx > -1 ? new GroupView(idx) : null;
+	}
+
+
+	/**
+	 * @return the key of the group at {@code groupIndex}
+	 */
+	@SuppressWarnings("unchecked")
+	public K getKey(int groupIndex) {
+		return (K)keys[groupIndex];
+	}
+
+
+	/**
+	 * @return a read-only view of the values in the group at {@code groupIndex}
+	 */
+	public List<T> getGroup(int groupIndex) {
+		if(groupIndex < 0 || groupIndex >= keys.length) {
+			throw new IndexOutOfBoundsException("group index: " + groupIndex + ", group count: " + keys.length);
+		}
+		return new GroupView(groupIndex);
+	}
+
+
+	/**
+	 * @return a read-only list of the group keys, in group order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<K> keys() {
+		return (List<K>)Collections.unmodifiableList(Arrays.asList(keys));
+	}
+
+
+	/**
+	 * @return a read-only view of this multimap as a map of keys to group views, in group order
+	 */
+	public Map<K, List<T>> asMap() {
+		Map<K, List<T>> view = mapView;
+		if(view == null) {
+			mapView = view = new MapView();
+		}
+		return view;
+	}
+
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+
+	/** Group values into a new multimap using two passes over {@code iter}, the first pass extracts each value's key
+	 * and counts the size of each group, the second pass copies each value into its group's range of the value array.
+	 * @param iter the values to group, must iterate the same values in the same order each time it is iterated, as a {@link Collection} does
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored, called once per value
+	 */
+	static <K, T> CompactMultimap<K, T> build(Iterable<? extends T> iter, Function<? super T, ? extends K> extractKey) {
+		int[] groupIds = new int[iter instanceof Collection ? ((Collection<?>)iter).size() : 16];
+		Object[] keys = new Object[16];
+		int[] counts = new int[16];
+		int[] table = new int[Hashing.tableSize(16, LOAD_FACTOR)];
+		int groupCount = 0;
+		int valueCount = 0;
+		int n = 0;
+
+		// pass 1: assign each value a group and count the values in each group
+		for(T val : iter) {
+			K key = extractKey.apply(val);
+			int groupId = -1;
+			if(key != null) {
+				int mask = table.length - 1;
+				int i = Hashing.mix(key.hashCode()) & mask;
+				for(int slot; (slot = table[i]) != 0; i = (i + 1) & mask) {
+					if(keys[slot - 1].equals(key)) {
+						groupId = slot - 1;
+						break;
+					}
+				}
+				if(groupId < 0) {
+					groupId = groupCount++;
+					if(groupId == keys.length) {
+						keys = Arrays.copyOf(keys, groupId * 2);
+						counts = Arrays.copyOf(counts, groupId * 2);
+					}
+					keys[groupId] = key;
+					table[i] = groupId + 1;
+					if(groupCount > table.length * LOAD_FACTOR) {
+						table = buildKeyTable(keys, groupCount, table.length << 1);
+					}
+				}
+				counts[groupId]++;
+				valueCount++;
+			}
+			if(n == groupIds.length) {
+				groupIds = Arrays.copyOf(groupIds, Math.max(n * 2, 16));
+			}
+			groupIds[n++] = groupId;
+		}
+
+		int[] offsets = new int[groupCount + 1];
+		for(int g = 0; g < groupCount; g++) {
+			offsets[g + 1] = offsets[g] + counts[g];
+		}
+
+		// pass 2: copy each value into its group's next free position
+		int[] next = counts;
+		System.arraycopy(offsets, 0, next, 0, groupCount);
+		Object[] values = new Object[valueCount];
+		int i = 0;
+		for(T val : iter) {
+			if(i == n) {
+				throw new IllegalStateException("values changed between iterations, expected " + n + " values");
+			}
+			int groupId = groupIds[i++];
+			if(groupId > -1) {
+				values[next[groupId]++] = val;
+			}
+		}
+		if(i != n) {
+			throw new IllegalStateException("values changed between iterations, expected " + n + " values, found " + i);
+		}
+
+		Object[] groupKeys = Arrays.copyOf(keys, groupCount);
+		int[] keyTable = buildKeyTable(groupKeys, groupCount, Hashing.tableSize(groupCount, LOAD_FACTOR));
+		return new CompactMultimap<>(groupKeys, offsets, values, keyTable);
+	}
+
+
+	private static int[] buildKeyTable(Object[] keys, int count, int tableSize) {
+		int[] table = new int[tableSize];
+		int mask = tableSize - 1;
+		for(int g = 0; g < count; g++) {
+			int i = Hashing.mix(keys[g].hashCode()) & mask;
+			while(table[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			table[i] = g + 1;
+		}
+		return table;
+	}
+
+
+	/** A read-only view of one group's range of the values array
+	 */
+	private final class GroupView extends AbstractList<T> implements RandomAccess {
+		private final int off;
+		private final int len;
+
+
+		GroupView(int groupIndex) {
+			this.off = offsets[groupIndex];
+			this.len = offsets[groupIndex + 1] - off;
+		}
+
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T get(int index) {
+			if(index < 0 || index >= len) {
+				throw new IndexOutOfBoundsException("index: " + index + ", size: " + len);
+			}
+			return (T)values[off + index];
+		}
+
+
+		@Override
+		public int size() {
+			return len;
+		}
+
+	}
+
+
+	/** A read-only map view of the groups
+	 */
+	private final class MapView extends AbstractMap<K, List<T>> {
+
+		@Override
+		public int size() {
+			return keys.length;
+		}
+
+
+		@Override
+		public boolean containsKey(Object key) {
+			return indexOf(key) > -1;
+		}
+
+
+		@Override
+		public List<T> get(Object key) {
+			return CompactMultimap.this.get(key);
+		}
+
+
+		@Override
+		public Set<Map.Entry<K, List<T>>> entrySet() {
+			return new AbstractSet<Map.Entry<K, List<T>>>() {
+				@Override
+				public int size() {
+					return keys.length;
+				}
+
+				@Override
+				public Iterator<Map.Entry<K, List<T>>> iterator() {
+					return new Iterator<Map.Entry<K, List<T>>>() {
+						private int idx;
+
+						@Override
+						public boolean hasNext() {
+							return idx < keys.length;
+						}
+
+						@Override
+						public Map.Entry<K, List<T>> next() {
+							if(idx >= keys.length) {
+								throw new NoSuchElementException();
+							}
+							int i = idx++;
+							return new AbstractMap.SimpleImmutableEntry<>(getKey(i), new GroupView(i));
+						}
+					};
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+package twg2.collections.builder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Writes and reads values to and from a binary stream, used by collection operations which store values outside of the Java heap
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <T> the type of values
+ */
+public interface ElementCodec<T> {
+
+	/** Write a value to a stream, {@link #read(DataInput)} must read back exactly the bytes written
+	 * @param value the value to write
+	 * @param out the output stream
+	 */
+	public void write(T value, DataOutput out) throws IOException;
+
+
+	/** Read a value written by {@link #write(Object, DataOutput)}
+	 * @param in the input stream
+	 * @return the value
+	 */
+	public T read(DataInput in) throws IOException;
+
+
+	/**
+	 * @return a codec for non-null strings of any length, written as a byte count followed by UTF-8 bytes
+	 */
+	public static ElementCodec<String> utf8() {
+		return ElementCodecs.UTF8;
+	}
+
+
+	/**
+	 * @return a codec for non-null integers
+	 */
+	public static ElementCodec<Integer> ints() {
+		return ElementCodecs.INTS;
+	}
+
+
+	/**
+	 * @return a codec for non-null longs
+	 */
+	public static ElementCodec<Long> longs() {
+		return ElementCodecs.LONGS;
+	}
+
+}
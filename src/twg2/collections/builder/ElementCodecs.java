@@ -0,0 +1,43 @@
+package twg2.collections.builder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** Shared {@link ElementCodec} instances
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class ElementCodecs {
+
+	private ElementCodecs() { throw new AssertionError("cannot instantiate static class ElementCodecs"); }
+
+
+	static final ElementCodec<String> UTF8 = new ElementCodec<String>() {
+		@Override public void write(String value, DataOutput out) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override public String read(DataInput in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+
+	static final ElementCodec<Integer> INTS = new ElementCodec<Integer>() {
+		@Override public void write(Integer value, DataOutput out) throws IOException { out.writeInt(value); }
+		@Override public Integer read(DataInput in) throws IOException { return in.readInt(); }
+	};
+
+
+	static final ElementCodec<Long> LONGS = new ElementCodec<Long>() {
+		@Override public void write(Long value, DataOutput out) throws IOException { out.writeLong(value); }
+		@Override public Long read(DataInput in) throws IOException { return in.readLong(); }
+	};
+
+}
@@ -0,0 +1,79 @@
+package twg2.collections.builder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/** Shared, lazily built, immutable enum lookup tables cached per enum class.
+ * The cache is a {@link ClassValue} so tables are released along with their enum class' class loader.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see MapBuilder#sharedEnumNames(Class)
+ */
+final class EnumTables {
+
+	private static final ClassValue<Tables> TABLES = new ClassValue<Tables>() {
+		@Override
+		protected Tables computeValue(Class<?> type) {
+			return new Tables(type);
+		}
+	};
+
+
+	private EnumTables() { throw new AssertionError("cannot instantiate static class EnumTables"); }
+
+
+	/**
+	 * @return the shared array of an enum's constants, which must not be modified
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>> E[] constants(Class<E> enumClass) {
+		return (E[])TABLES.get(enumClass).constants;
+	}
+
+
+	/**
+	 * @return the shared immutable map of an enum's constant names to constants
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>> Map<String, E> names(Class<E> enumClass) {
+		Tables tables = TABLES.get(enumClass);
+		Map<String, E> names = (Map<String, E>)tables.names;
+		if(names == null) {
+			tables.names = names = MapBuilder.immutableEnumNames(enumClass, Enum::name);
+		}
+		return names;
+	}
+
+
+	/**
+	 * @param mappingName the name the table is cached under, the {@code enumToKey} function is only called the first time a name is requested for an enum class
+	 * @return the shared immutable map of an enum's mapped keys to constants
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>, R> Map<R, E> mapped(Class<E> enumClass, String mappingName, Function<E, R> enumToKey) {
+		Tables tables = TABLES.get(enumClass);
+		return (Map<R, E>)tables.mapped.computeIfAbsent(mappingName, (name) -> MapBuilder.immutableEnumNames(enumClass, enumToKey));
+	}
+
+
+	/** The tables for one enum class
+	 */
+	private static final class Tables {
+		final Enum<?>[] constants;
+		/** built on first use, racing threads may each build an identical table */
+		volatile Map<String, ?> names;
+		final Map<String, Map<?, ?>> mapped = new ConcurrentHashMap<>();
+
+
+		Tables(Class<?> type) {
+			Object[] enums = type.getEnumConstants();
+			if(enums == null) {
+				throw new IllegalArgumentException("not an enum class: " + type.getName());
+			}
+			this.constants = (Enum<?>[])enums;
+		}
+
+	}
+
+}
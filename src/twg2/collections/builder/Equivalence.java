@@ -0,0 +1,125 @@
+package twg2.collections.builder;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/** A strategy for deciding whether two keys are equivalent, used by {@link GroupBy} in place of {@link Object#equals(Object)}.<br>
+ * A hashable equivalence provides a {@link #hash(Object)} function which returns the same value for any two equivalent keys,
+ * this allows grouping in a single pass using a hash table.
+ * A non-hashable equivalence (see {@link #isHashable()}) is grouped by sorting keys using its {@link #comparator()} if it has one,
+ * or using the keys' natural ordering (or hash code order for keys which are not {@link Comparable}) if it does not, and clustering adjacent equivalent keys.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys being compared
+ */
+public interface Equivalence<K> {
+
+	/**
+	 * @param key the key, not null
+	 * @return a hash code for the key, equivalent keys must have equal hash codes
+	 */
+	public int hash(K key);
+
+
+	/**
+	 * @param a the first key, not null
+	 * @param b the second key, not null
+	 * @return true if the two keys are equivalent
+	 */
+	public boolean equivalent(K a, K b);
+
+
+	/**
+	 * @return true if {@link #hash(Object)} is consistent with {@link #equivalent(Object, Object)}, false if this equivalence has no hash function
+	 */
+	public default boolean isHashable() {
+		return true;
+	}
+
+
+	/**
+	 * @return a comparator which orders keys such that equivalent keys are adjacent, or null if there is no such ordering
+	 */
+	public default Comparator<? super K> comparator() {
+		return null;
+	}
+
+
+	/**
+	 * @return an equivalence based on {@link Object#hashCode()} and {@link Object#equals(Object)}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> Equivalence<K> natural() {
+		return (Equivalence<K>)Equivalences.NATURAL;
+	}
+
+
+	/**
+	 * @return an equivalence based on {@link System#identityHashCode(Object)} and reference equality
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> Equivalence<K> identity() {
+		return (Equivalence<K>)Equivalences.IDENTITY;
+	}
+
+
+	/**
+	 * @return a case insensitive string equivalence based on {@link String#equalsIgnoreCase(String)}, no case folded copies of the strings are created
+	 */
+	public static Equivalence<String> caseInsensitive() {
+		return Equivalences.CASE_INSENSITIVE;
+	}
+
+
+	/** Create a hashable equivalence
+	 * @param hash the hash function, must return the same value for any two keys which {@code equal} considers equivalent
+	 * @param equal the equivalence check
+	 */
+	public static <K> Equivalence<K> of(ToIntFunction<? super K> hash, BiPredicate<? super K, ? super K> equal) {
+		Objects.requireNonNull(hash, "hash");
+		Objects.requireNonNull(equal, "equal");
+		return new Equivalence<K>() {
+			@Override public int hash(K key) { return hash.applyAsInt(key); }
+			@Override public boolean equivalent(K a, K b) { return equal.test(a, b); }
+		};
+	}
+
+
+	/** Create a predicate only equivalence with no hash function or ordering, grouping with this equivalence
+	 * sorts the keys by their natural ordering (or hash code order for keys which are not {@link Comparable}) and clusters adjacent equivalent keys,
+	 * so equivalent keys are only grouped together if they are adjacent in that order
+	 * @param equal the equivalence check
+	 */
+	public static <K> Equivalence<K> of(BiPredicate<? super K, ? super K> equal) {
+		return of(equal, null);
+	}
+
+
+	/** Create a predicate only equivalence with no hash function, grouping with this equivalence
+	 * sorts the keys using {@code comparator} and clusters adjacent equivalent keys
+	 * @param equal the equivalence check
+	 * @param comparator a comparator which orders keys such that keys which {@code equal} considers equivalent are adjacent, can be null
+	 */
+	public static <K> Equivalence<K> of(BiPredicate<? super K, ? super K> equal, Comparator<? super K> comparator) {
+		Objects.requireNonNull(equal, "equal");
+		return new Equivalence<K>() {
+			@Override public int hash(K key) { throw new UnsupportedOperationException("predicate equivalence has no hash function"); }
+			@Override public boolean equivalent(K a, K b) { return equal.test(a, b); }
+			@Override public boolean isHashable() { return false; }
+			@Override public Comparator<? super K> comparator() { return comparator; }
+		};
+	}
+
+
+	/** Create an equivalence where keys are equivalent if {@code comparator} returns 0 for them,
+	 * grouping with this equivalence sorts the keys and clusters adjacent equivalent keys
+	 * @param comparator the key comparator
+	 */
+	public static <K> Equivalence<K> comparing(Comparator<? super K> comparator) {
+		Objects.requireNonNull(comparator, "comparator");
+		return of((a, b) -> comparator.compare(a, b) == 0, comparator);
+	}
+
+}
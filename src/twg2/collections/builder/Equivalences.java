@@ -0,0 +1,39 @@
+package twg2.collections.builder;
+
+import java.util.Objects;
+
+/** Shared {@link Equivalence} instances
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class Equivalences {
+
+	private Equivalences() { throw new AssertionError("cannot instantiate static class Equivalences"); }
+
+
+	static final Equivalence<Object> NATURAL = new Equivalence<Object>() {
+		@Override public int hash(Object key) { return key.hashCode(); }
+		@Override public boolean equivalent(Object a, Object b) { return Objects.equals(a, b); }
+	};
+
+
+	static final Equivalence<Object> IDENTITY = new Equivalence<Object>() {
+		@Override public int hash(Object key) { return System.identityHashCode(key); }
+		@Override public boolean equivalent(Object a, Object b) { return a == b; }
+	};
+
+
+	static final Equivalence<String> CASE_INSENSITIVE = new Equivalence<String>() {
+		@Override public int hash(String key) {
+			int h = 0;
+			for(int i = 0, size = key.length(); i < size; i++) {
+				// the same case folding as String.equalsIgnoreCase()
+				h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+			}
+			return h;
+		}
+
+		@Override public boolean equivalent(String a, String b) { return a.equalsIgnoreCase(b); }
+	};
+
+}
@@ -0,0 +1,249 @@
+package twg2.collections.builder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/** Groups values which may not fit in memory by hash partitioning their serialized form, spilling partitions to temporary
+ * files when a memory budget is exceeded, and then grouping one partition at a time.
+ * A partition which is still larger than the budget is re-partitioned with a different hash.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see GroupBy#groupByExternal(Iterator, Function, ElementCodec, long, Path, BiConsumer)
+ */
+final class ExternalGrouper<T, K> {
+	private static final int PARTITIONS = 64;
+	private static final int MAX_DEPTH = 4;
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+
+	private final Function<T, K> extractKey;
+	private final ElementCodec<T> codec;
+	private final long memoryBudget;
+	private final Path tempDir;
+	private final BiConsumer<? super K, ? super List<T>> consumer;
+	private long groupCount;
+
+
+	ExternalGrouper(Function<T, K> extractKey, ElementCodec<T> codec, long memoryBudget, Path tempDir, BiConsumer<? super K, ? super List<T>> consumer) {
+		if(memoryBudget < 1) {
+			throw new IllegalArgumentException("memory budget must be positive: " + memoryBudget);
+		}
+		this.extractKey = extractKey;
+		this.codec = codec;
+		this.memoryBudget = memoryBudget;
+		this.tempDir = tempDir;
+		this.consumer = consumer;
+	}
+
+
+	/**
+	 * @return the number of groups passed to the consumer
+	 */
+	long group(Iterator<T> iter) throws IOException {
+		try {
+			group(iter, 0);
+		} catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return groupCount;
+	}
+
+
+	private void group(Iterator<T> iter, int depth) throws IOException {
+		List<SpillFile> partitions = new ArrayList<>(PARTITIONS);
+		for(int i = 0; i < PARTITIONS; i++) {
+			partitions.add(new SpillFile());
+		}
+		int seed = depth * 0x9E3779B9;
+		try {
+			long buffered = 0;
+			while(iter.hasNext()) {
+				T val = iter.next();
+				K key = extractKey.apply(val);
+				if(key == null) {
+					continue;
+				}
+				SpillFile partition = partitions.get(Hashing.mix(key.hashCode() ^ seed) & (PARTITIONS - 1));
+				int before = partition.buffer.size();
+				codec.write(val, partition.out);
+				partition.count++;
+				buffered += partition.buffer.size() - before;
+				if(buffered > memoryBudget) {
+					buffered -= spillLargest(partitions);
+				}
+			}
+
+			for(SpillFile partition : partitions) {
+				if(partition.count == 0) {
+					continue;
+				}
+				if(partition.totalBytes() > memoryBudget && depth < MAX_DEPTH) {
+					group(partition.reader(), depth + 1);
+				}
+				else {
+					emitGroups(partition.reader());
+				}
+				partition.close();
+			}
+		} finally {
+			for(SpillFile partition : partitions) {
+				partition.close();
+			}
+		}
+	}
+
+
+	/**
+	 * @return the number of bytes freed
+	 */
+	private long spillLargest(List<SpillFile> partitions) throws IOException {
+		SpillFile largest = partitions.get(0);
+		for(SpillFile partition : partitions) {
+			if(partition.buffer.size() > largest.buffer.size()) {
+				largest = partition;
+			}
+		}
+		return largest.spill();
+	}
+
+
+	private void emitGroups(Iterator<T> iter) {
+		Map<K, List<T>> groups = new LinkedHashMap<>();
+		while(iter.hasNext()) {
+			T val = iter.next();
+			K key = extractKey.apply(val);
+			List<T> group = groups.get(key);
+			if(group == null) {
+				groups.put(key, group = new ArrayList<>());
+			}
+			group.add(val);
+		}
+		for(Map.Entry<K, List<T>> group : groups.entrySet()) {
+			consumer.accept(group.getKey(), group.getValue());
+			groupCount++;
+		}
+	}
+
+
+	/** Serialized values in one hash partition, the oldest values may have been spilled to a temporary file
+	 */
+	private final class SpillFile {
+		final Buffer buffer = new Buffer();
+		final DataOutputStream out = new DataOutputStream(buffer);
+		/** the total number of values, spilled and buffered */
+		long count;
+		long spilledCount;
+		long spilledBytes;
+		Path file;
+		FileChannel channel;
+
+
+		long totalBytes() {
+			return spilledBytes + buffer.size();
+		}
+
+
+		/** Append the buffered values to this partition's temporary file
+		 * @return the number of bytes written
+		 */
+		long spill() throws IOException {
+			if(channel == null) {
+				file = tempDir != null ? Files.createTempFile(tempDir, "group-by-", ".part") : Files.createTempFile("group-by-", ".part");
+				channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			ByteBuffer bytes = buffer.asByteBuffer();
+			int size = bytes.remaining();
+			while(bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			buffer.reset();
+			spilledBytes += size;
+			spilledCount = count;
+			return size;
+		}
+
+
+		/** Read the spilled values followed by the buffered values, in the order they were written
+		 */
+		Iterator<T> reader() throws IOException {
+			InputStream spilled = channel != null ? new BufferedInputStream(Channels.newInputStream(channel.position(0)), IO_BUFFER_SIZE) : null;
+			DataInputStream spilledIn = spilled != null ? new DataInputStream(spilled) : null;
+			DataInputStream bufferedIn = new DataInputStream(new ByteArrayInputStream(buffer.array(), 0, buffer.size()));
+			return new Iterator<T>() {
+				private long read;
+
+				@Override
+				public boolean hasNext() {
+					return read < count;
+				}
+
+				@Override
+				public T next() {
+					if(read >= count) {
+						throw new NoSuchElementException();
+					}
+					try {
+						T val = codec.read(read < spilledCount ? spilledIn : bufferedIn);
+						read++;
+						return val;
+					} catch(IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			};
+		}
+
+
+		void close() throws IOException {
+			buffer.release();
+			if(channel != null) {
+				channel.close();
+				channel = null;
+				Files.deleteIfExists(file);
+			}
+		}
+
+	}
+
+
+	/** A {@link ByteArrayOutputStream} which exposes its internal array
+	 */
+	private static final class Buffer extends ByteArrayOutputStream {
+
+		byte[] array() {
+			return buf;
+		}
+
+
+		ByteBuffer asByteBuffer() {
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+
+
+		void release() {
+			buf = new byte[0];
+			count = 0;
+		}
+
+	}
+
+}
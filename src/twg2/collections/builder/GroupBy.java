@@ -1,18 +1,42 @@
 package twg2.collections.builder;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 /**
  * @author TeamworkGuy2
  * @since 2016-10-26
  */
 public final class GroupBy {
+	/** The maximum number of groups presized for when estimating the number of groups from the number of values */
+	private static final int MAX_ESTIMATED_GROUPS = 1 << 10;
+	/** The number of values below which parallel grouping tasks group values on the current thread instead of splitting */
+	private static final int PARALLEL_LEAF_SIZE = 1 << 12;
 
 	private GroupBy() { throw new AssertionError("Cannot instantiate static class GroupBy"); }
 
@@ -22,35 +46,868 @@ public final class GroupBy {
 	}
 
 
+	/** Group values by key, the groups are returned in the order their first value was encountered
+	 * @see #groupBy(Iterator, Function, BiPredicate)
+	 */
 	public static final <T, K> List<List<T>> groupByList(Iterator<T> iter, Function<T, K> extractKey, BiPredicate<K, K> compare) {
-		Map<K, List<T>> groups = groupBy(iter, extractKey, compare);
-		List<List<T>> res = new ArrayList<>();
-		for(Map.Entry<K, List<T>> group : groups.entrySet()) {
-			res.add(group.getValue());
+		return groupByListEquivalence(iter, extractKey, Equivalence.natural());
+	}
+
+
+	/** Group values by key, the groups are returned in the order their first value was encountered
+	 * @see #groupByEquivalence(Iterator, Function, Equivalence)
+	 */
+	public static final <T, K> List<List<T>> groupByListEquivalence(Iterable<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		return groupByListEquivalence(iter.iterator(), extractKey, equivalence);
+	}
+
+
+	/** Group values by key, the groups are returned in the order their first value was encountered
+	 * (or in key order if {@code equivalence} is grouped by sorting).
+	 * Unlike {@link #groupByEquivalence(Iterator, Function, Equivalence)} no map is built, so keys which are equal according
+	 * to {@link Object#equals(Object)} but not according to {@code equivalence} remain in separate groups.
+	 * @see #groupByEquivalence(Iterator, Function, Equivalence)
+	 */
+	public static final <T, K> List<List<T>> groupByListEquivalence(Iterator<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		List<Group<K, T>> groups = group(iter, extractKey, equivalence);
+		List<List<T>> res = new ArrayList<>(groups.size());
+		for(int i = 0, size = groups.size(); i < size; i++) {
+			res.add(groups.get(i).values);
 		}
 		return res;
 	}
 
 
+	/** Group values by key into a list of groups in a deterministic order, the order in which each group's first value was encountered.
+	 * The group table and result list are presized for {@code expectedGroups} and each group list is trimmed to its size.
+	 * Keys are compared using {@link Object#equals(Object)}.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param expectedGroups the expected number of groups, or 0 to estimate the number of groups from the size of {@code iter} if it is a {@link Collection}
+	 * @return the list of groups, in first encountered order
+	 */
+	public static final <T, K> List<List<T>> groupByListOrdered(Iterable<T> iter, Function<T, K> extractKey, int expectedGroups) {
+		List<Group<K, T>> groups = groupHashed(iter.iterator(), extractKey, Equivalence.natural(), estimateGroups(iter, expectedGroups));
+		return toCompactLists(groups);
+	}
+
+
+	/** Group values by key into a list of groups sorted by key.
+	 * Only the groups are sorted, not the values, each group's values remain in encounter order.
+	 * The group table and result list are presized for {@code expectedGroups} and each group list is trimmed to its size.
+	 * Keys are grouped using {@link Object#equals(Object)}, which should be consistent with {@code comparator}.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param comparator the comparator to sort group keys by
+	 * @param expectedGroups the expected number of groups, or 0 to estimate the number of groups from the size of {@code iter} if it is a {@link Collection}
+	 * @return the list of groups, in key order
+	 */
+	public static final <T, K> List<List<T>> groupByListSorted(Iterable<T> iter, Function<T, K> extractKey, Comparator<? super K> comparator, int expectedGroups) {
+		List<Group<K, T>> groups = groupHashed(iter.iterator(), extractKey, Equivalence.natural(), estimateGroups(iter, expectedGroups));
+		groups.sort((a, b) -> comparator.compare(a.key, b.key));
+		return toCompactLists(groups);
+	}
+
+
 	public static final <T, K> Map<K, List<T>> groupBy(Iterable<T> iter, Function<T, K> extractKey, BiPredicate<K, K> compare) {
 		return groupBy(iter.iterator(), extractKey, compare);
 	}
 
 
+	/** Group values by key in a single pass using a hash table, keys are grouped by {@link Object#hashCode()} and {@link Object#equals(Object)}.
+	 * To group keys using a custom equality check use {@link #groupByEquivalence(Iterator, Function, Equivalence)},
+	 * for example with {@code Equivalence.of(compare)}.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param compare unused, kept for compatibility, keys are always compared using {@link Object#equals(Object)}
+	 * @return a map of group keys to the values in each group, in the order the groups were encountered
+	 * @see #groupByEquivalence(Iterator, Function, Equivalence)
+	 */
 	public static final <T, K> Map<K, List<T>> groupBy(Iterator<T> iter, Function<T, K> extractKey, BiPredicate<K, K> compare) {
-		Map<K, List<T>> res = new HashMap<>();
+		return groupByEquivalence(iter, extractKey, Equivalence.natural());
+	}
+
+
+	/**
+	 * @see #groupByEquivalence(Iterator, Function, Equivalence)
+	 */
+	public static final <T, K> Map<K, List<T>> groupByEquivalence(Iterable<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		return groupByEquivalence(iter.iterator(), extractKey, equivalence);
+	}
+
+
+	/** Group values by key using a custom key equivalence, in a single pass, without creating canonical key objects.<br>
+	 * A hashable {@code equivalence} groups values using a hash table.
+	 * A non-hashable {@code equivalence} sorts the values by key, using its {@link Equivalence#comparator()} if it has one, and clusters adjacent equivalent keys.<br>
+	 * The returned map is keyed by the first key encountered for each group and iterates in the order the groups were encountered (or in key order if sorted).
+	 * The returned map uses {@link Object#equals(Object)} for lookups, so groups which {@code equivalence} keeps apart but whose keys are
+	 * {@code equals()} (for example with {@link Equivalence#identity()}) are merged into the first such group,
+	 * use {@link #groupByListEquivalence(Iterator, Function, Equivalence)} to keep them separate.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param equivalence the key equivalence strategy
+	 * @return a map of group keys to the values in each group
+	 */
+	public static final <T, K> Map<K, List<T>> groupByEquivalence(Iterator<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		List<Group<K, T>> groups = group(iter, extractKey, equivalence);
+		Map<K, List<T>> res = new LinkedHashMap<>(Hashing.hashMapCapacity(groups.size()));
+		for(int i = 0, size = groups.size(); i < size; i++) {
+			Group<K, T> group = groups.get(i);
+			List<T> prev = res.putIfAbsent(group.key, group.values);
+			if(prev != null) {
+				prev.addAll(group.values);
+			}
+		}
+		return res;
+	}
+
+
+	/**
+	 * @see #groupByCollecting(Iterator, Function, Collector)
+	 */
+	public static final <T, K, A, R> Map<K, R> groupByCollecting(Iterable<T> iter, Function<T, K> extractKey, Collector<? super T, A, R> downstream) {
+		return groupByCollecting(iter.iterator(), extractKey, downstream);
+	}
+
+
+	/** Group values by key and fold each group's values into a result using a downstream {@link Collector} as they are encountered,
+	 * no per-group lists are built unless {@code downstream} builds them.
+	 * The returned map iterates in the order the groups were encountered.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param downstream the collector which reduces each group's values, see {@link Collectors}
+	 * @return a map of group keys to each group's {@code downstream} result
+	 */
+	@SuppressWarnings("unchecked")
+	public static final <T, K, A, R> Map<K, R> groupByCollecting(Iterator<T> iter, Function<T, K> extractKey, Collector<? super T, A, R> downstream) {
+		Supplier<A> supplier = downstream.supplier();
+		BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+		Map<K, A> res = new LinkedHashMap<>();
+		while(iter.hasNext()) {
+			T val = iter.next();
+			K key = extractKey.apply(val);
+			if(key != null) {
+				A container = res.get(key);
+				if(container == null) {
+					res.put(key, container = supplier.get());
+				}
+				accumulator.accept(container, val);
+			}
+		}
+		if(downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+			return (Map<K, R>)res;
+		}
+		Function<A, A> finisher = (Function<A, A>)downstream.finisher();
+		res.replaceAll((k, v) -> finisher.apply(v));
+		return (Map<K, R>)res;
+	}
+
+
+	/** Count the number of values in each group
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @return a map of group keys to the number of values in each group, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, Long> countBy(Iterable<T> iter, Function<T, K> extractKey) {
+		return sumBy(iter, extractKey, (v) -> 1L);
+	}
+
+
+	/** Sum a {@code long} property of the values in each group, without boxing each value
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param extractValue function which returns the number to sum for a value
+	 * @return a map of group keys to the sum of each group's values, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, Long> sumBy(Iterable<T> iter, Function<T, K> extractKey, ToLongFunction<? super T> extractValue) {
+		Map<K, long[]> sums = new LinkedHashMap<>();
+		for(T val : iter) {
+			K key = extractKey.apply(val);
+			if(key != null) {
+				long[] sum = sums.get(key);
+				if(sum == null) {
+					sums.put(key, sum = new long[1]);
+				}
+				sum[0] += extractValue.applyAsLong(val);
+			}
+		}
+		Map<K, Long> res = new LinkedHashMap<>(Hashing.hashMapCapacity(sums.size()));
+		sums.forEach((k, sum) -> res.put(k, sum[0]));
+		return res;
+	}
+
+
+	/** Sum a {@code double} property of the values in each group, without boxing each value
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param extractValue function which returns the number to sum for a value
+	 * @return a map of group keys to the sum of each group's values, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, Double> sumDoubleBy(Iterable<T> iter, Function<T, K> extractKey, ToDoubleFunction<? super T> extractValue) {
+		Map<K, double[]> sums = new LinkedHashMap<>();
+		for(T val : iter) {
+			K key = extractKey.apply(val);
+			if(key != null) {
+				double[] sum = sums.get(key);
+				if(sum == null) {
+					sums.put(key, sum = new double[1]);
+				}
+				sum[0] += extractValue.applyAsDouble(val);
+			}
+		}
+		Map<K, Double> res = new LinkedHashMap<>(Hashing.hashMapCapacity(sums.size()));
+		sums.forEach((k, sum) -> res.put(k, sum[0]));
+		return res;
+	}
+
+
+	/** Find the minimum value in each group, the first encountered of equal minimum values is kept
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param comparator the value comparator
+	 * @return a map of group keys to the minimum value in each group, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, T> minBy(Iterable<T> iter, Function<T, K> extractKey, Comparator<? super T> comparator) {
+		return reduceBy(iter, extractKey, (a, b) -> comparator.compare(b, a) < 0 ? b : a);
+	}
+
+
+	/** Find the maximum value in each group, the first encountered of equal maximum values is kept
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param comparator the value comparator
+	 * @return a map of group keys to the maximum value in each group, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, T> maxBy(Iterable<T> iter, Function<T, K> extractKey, Comparator<? super T> comparator) {
+		return reduceBy(iter, extractKey, (a, b) -> comparator.compare(b, a) > 0 ? b : a);
+	}
+
+
+	/**
+	 * @return a map of group keys to the first value encountered in each group, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, T> firstBy(Iterable<T> iter, Function<T, K> extractKey) {
+		return reduceBy(iter, extractKey, (a, b) -> a);
+	}
+
+
+	/**
+	 * @return a map of group keys to the last value encountered in each group, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, T> lastBy(Iterable<T> iter, Function<T, K> extractKey) {
+		return reduceBy(iter, extractKey, (a, b) -> b);
+	}
+
+
+	/** Reduce the values in each group to a single value as they are encountered
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param reducer function which combines a group's current result with the next value in the group
+	 * @return a map of group keys to each group's reduced value, in the order the groups were encountered
+	 */
+	public static final <T, K> Map<K, T> reduceBy(Iterable<T> iter, Function<T, K> extractKey, BinaryOperator<T> reducer) {
+		Map<K, T> res = new LinkedHashMap<>();
+		for(T val : iter) {
+			K key = extractKey.apply(val);
+			if(key != null) {
+				T prev = res.get(key);
+				// only a null result needs a second lookup to tell an absent group from a group reduced to null
+				res.put(key, prev != null || res.containsKey(key) ? reducer.apply(prev, val) : val);
+			}
+		}
+		return res;
+	}
+
+
+	/** Find the {@code k} greatest values in each group. Each group keeps a bounded min-heap of at most {@code k} values
+	 * as the values are encountered, so groups are never fully materialized or sorted.
+	 * Heap entries are tagged with their encounter sequence and a later value ranks below an equal earlier value,
+	 * so ties are resolved deterministically.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param comparator the value comparator
+	 * @param k the maximum number of values to keep per group
+	 * @return a map of group keys to lists of each group's greatest values sorted from greatest to least, in the order the groups were encountered.
+	 * When more than {@code k} values in a group are equal, the first encountered are kept, equal values are listed in encounter order
+	 */
+	public static final <T, K> Map<K, List<T>> topKBy(Iterable<T> iter, Function<T, K> extractKey, Comparator<? super T> comparator, int k) {
+		if(k < 1) {
+			throw new IllegalArgumentException("k must be positive: " + k);
+		}
+		// ascending rank, the heap's head is the lowest ranked value, the latest encountered of equal values
+		Comparator<Ranked<T>> rank = (a, b) -> {
+			int cmp = comparator.compare(a.value, b.value);
+			return cmp != 0 ? cmp : Long.compare(b.seq, a.seq);
+		};
+		Map<K, PriorityQueue<Ranked<T>>> heaps = new LinkedHashMap<>();
+		long seq = 0;
+		for(T val : iter) {
+			K key = extractKey.apply(val);
+			if(key == null) {
+				continue;
+			}
+			PriorityQueue<Ranked<T>> heap = heaps.get(key);
+			if(heap == null) {
+				heaps.put(key, heap = new PriorityQueue<>(Math.min(k, 16) + 1, rank));
+			}
+			if(heap.size() < k) {
+				heap.add(new Ranked<>(val, seq));
+			}
+			// a value equal to the lowest ranked value was encountered later, so it ranks lower and is not kept
+			else if(comparator.compare(val, heap.peek().value) > 0) {
+				Ranked<T> evicted = heap.poll();
+				evicted.value = val;
+				evicted.seq = seq;
+				heap.add(evicted);
+			}
+			seq++;
+		}
+
+		Comparator<Ranked<T>> descending = rank.reversed();
+		Map<K, List<T>> res = new LinkedHashMap<>(Hashing.hashMapCapacity(heaps.size()));
+		for(Map.Entry<K, PriorityQueue<Ranked<T>>> entry : heaps.entrySet()) {
+			List<Ranked<T>> top = new ArrayList<>(entry.getValue());
+			top.sort(descending);
+			List<T> values = new ArrayList<>(top.size());
+			for(int i = 0, size = top.size(); i < size; i++) {
+				values.add(top.get(i).value);
+			}
+			res.put(entry.getKey(), values);
+		}
+		return res;
+	}
+
+
+	/** Split values into those which match a condition and those which do not, in one pass
+	 * @param iter the values to partition
+	 * @param condition the condition to test each value against
+	 * @return the matching values ({@link Partition#getMatching()}) and non-matching values ({@link Partition#getNonMatching()}), each in encounter order
+	 */
+	public static final <T> Partition<T> partition(Iterable<T> iter, Predicate<? super T> condition) {
+		List<T> matching = new ArrayList<>();
+		List<T> nonMatching = new ArrayList<>();
+		for(T val : iter) {
+			(condition.test(val) ? matching : nonMatching).add(val);
+		}
+		return new Partition<>(matching, nonMatching);
+	}
+
+
+	/**
+	 * @see #groupRuns(Iterator, Function, BiPredicate, BiConsumer)
+	 */
+	public static final <T, K> long groupRuns(Iterable<T> iter, Function<T, K> extractKey, BiPredicate<K, K> compare, BiConsumer<? super K, ? super List<T>> consumer) {
+		return groupRuns(iter.iterator(), extractKey, compare, consumer);
+	}
+
+
+	/** Group consecutive values with equal keys and pass each group to a consumer as soon as the next key is encountered.
+	 * Only one group is kept in memory at a time, so for input sorted or clustered by key, the memory used is
+	 * proportional to the largest group rather than to the total number of values.
+	 * Keys which reappear after a different key start a new group.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param compare the key equality check, null to use {@link Object#equals(Object)}
+	 * @param consumer receives each group's first key and a new list containing the group's values
+	 * @return the number of groups passed to {@code consumer}
+	 */
+	public static final <T, K> long groupRuns(Iterator<T> iter, Function<T, K> extractKey, BiPredicate<K, K> compare, BiConsumer<? super K, ? super List<T>> consumer) {
+		BiPredicate<K, K> equal = compare != null ? compare : Object::equals;
+		long count = 0;
+		K groupKey = null;
+		List<T> group = null;
+		while(iter.hasNext()) {
+			T val = iter.next();
+			K key = extractKey.apply(val);
+			if(key != null) {
+				if(group != null && !equal.test(groupKey, key)) {
+					consumer.accept(groupKey, group);
+					count++;
+					group = null;
+				}
+				if(group == null) {
+					groupKey = key;
+					group = new ArrayList<>();
+				}
+				group.add(val);
+			}
+		}
+		if(group != null) {
+			consumer.accept(groupKey, group);
+			count++;
+		}
+		return count;
+	}
+
+
+	/**
+	 * @see #groupSorted(Iterator, Function, Comparator, BiConsumer)
+	 */
+	public static final <T, K> long groupSorted(Iterable<T> iter, Function<T, K> extractKey, Comparator<? super K> comparator, BiConsumer<? super K, ? super List<T>> consumer) {
+		return groupSorted(iter.iterator(), extractKey, comparator, consumer);
+	}
+
+
+	/** Group values which are sorted by key and pass each group to a consumer as soon as the next key is encountered.
+	 * Only one group is kept in memory at a time, the memory used is proportional to the largest group.
+	 * @param iter the values to group, sorted by key
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @param comparator the key comparator which the values are sorted by, keys are equal if it returns 0
+	 * @param consumer receives each group's first key and a new list containing the group's values
+	 * @return the number of groups passed to {@code consumer}
+	 * @throws IllegalStateException if a key is less than the previous key, the groups before that key have already been passed to {@code consumer}
+	 */
+	public static final <T, K> long groupSorted(Iterator<T> iter, Function<T, K> extractKey, Comparator<? super K> comparator, BiConsumer<? super K, ? super List<T>> consumer) {
+		long count = 0;
+		K groupKey = null;
+		List<T> group = null;
 		while(iter.hasNext()) {
 			T val = iter.next();
 			K key = extractKey.apply(val);
 			if(key != null) {
-				List<T> group = res.get(key);
+				if(group != null) {
+					int cmp = comparator.compare(groupKey, key);
+					if(cmp > 0) {
+						throw new IllegalStateException("values are not sorted by key, key '" + key + "' follows '" + groupKey + "'");
+					}
+					if(cmp != 0) {
+						consumer.accept(groupKey, group);
+						count++;
+						group = null;
+					}
+				}
+				if(group == null) {
+					groupKey = key;
+					group = new ArrayList<>();
+				}
+				group.add(val);
+			}
+		}
+		if(group != null) {
+			consumer.accept(groupKey, group);
+			count++;
+		}
+		return count;
+	}
+
+
+	/** Group values by an enum key. Groups are collected into an array indexed by each enum constant's {@link Enum#ordinal()},
+	 * no key hashing is performed.
+	 * @param iter the values to group
+	 * @param enumClass the enum key class
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @return a map of enum constants to the values in each group, in enum order
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static final <T, E extends Enum<E>> EnumMap<E, List<T>> groupByEnum(Iterable<T> iter, Class<E> enumClass, Function<T, E> extractKey) {
+		E[] constants = enumClass.getEnumConstants();
+		List<T>[] buckets = new List[constants.length];
+		for(T val : iter) {
+			E key = extractKey.apply(val);
+			if(key != null) {
+				int ordinal = key.ordinal();
+				List<T> group = buckets[ordinal];
 				if(group == null) {
-					res.put(key, group = new ArrayList<>());
+					buckets[ordinal] = group = new ArrayList<>();
 				}
 				group.add(val);
 			}
 		}
+		EnumMap<E, List<T>> res = new EnumMap<>(enumClass);
+		for(int i = 0; i < buckets.length; i++) {
+			if(buckets[i] != null) {
+				res.put(constants[i], buckets[i]);
+			}
+		}
 		return res;
 	}
 
+
+	/** Group values by an {@code int} key without boxing the keys, the groups are stored in an open-addressing primitive map
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value
+	 * @return a map of keys to the values in each group
+	 */
+	public static final <T> IntObjectHashMap<List<T>> groupByInt(Iterable<T> iter, ToIntFunction<? super T> extractKey) {
+		IntObjectHashMap<List<T>> res = new IntObjectHashMap<>(estimateGroups(iter, 0));
+		for(T val : iter) {
+			int key = extractKey.applyAsInt(val);
+			List<T> group = res.get(key);
+			if(group == null) {
+				res.put(key, group = new ArrayList<>());
+			}
+			group.add(val);
+		}
+		return res;
+	}
+
+
+	/** Group values by a {@code long} key without boxing the keys, the groups are stored in an open-addressing primitive map
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value
+	 * @return a map of keys to the values in each group
+	 */
+	public static final <T> LongObjectHashMap<List<T>> groupByLong(Iterable<T> iter, ToLongFunction<? super T> extractKey) {
+		LongObjectHashMap<List<T>> res = new LongObjectHashMap<>(estimateGroups(iter, 0));
+		for(T val : iter) {
+			long key = extractKey.applyAsLong(val);
+			List<T> group = res.get(key);
+			if(group == null) {
+				res.put(key, group = new ArrayList<>());
+			}
+			group.add(val);
+		}
+		return res;
+	}
+
+
+	/** Group values which may not fit in memory, passing each group to a consumer.
+	 * Values are serialized into in-memory hash partitions by key, when the serialized partitions exceed {@code memoryBudget} bytes
+	 * the largest partition is appended to a temporary file using buffered NIO channel I/O.
+	 * Once all values have been read, each partition is read back and grouped in turn, a partition which is still larger than
+	 * {@code memoryBudget} is re-partitioned using a different hash. Temporary files are deleted before this method returns.<br>
+	 * Groups are passed to the consumer in partition order, values within a group are in encounter order.
+	 * The budget applies to serialized bytes, the heap used while grouping a partition depends on the size of the deserialized values,
+	 * and each group must fit in memory.
+	 * @param iter the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored, must return the same key for a value after it is deserialized
+	 * @param codec serializes and deserializes values
+	 * @param memoryBudget the maximum number of serialized bytes to buffer in memory
+	 * @param tempDir the directory to create temporary files in, or null to use the default temporary file directory
+	 * @param consumer receives each group's key and a new list containing the group's values
+	 * @return the number of groups passed to {@code consumer}
+	 * @throws IOException if a temporary file cannot be created, written, or read, or {@code codec} throws an error
+	 */
+	public static final <T, K> long groupByExternal(Iterator<T> iter, Function<T, K> extractKey, ElementCodec<T> codec, long memoryBudget, Path tempDir,
+			BiConsumer<? super K, ? super List<T>> consumer) throws IOException {
+		return new ExternalGrouper<>(extractKey, codec, memoryBudget, tempDir, consumer).group(iter);
+	}
+
+
+	/** Create an incrementally maintained grouping of values which can be updated as values are added, removed, or changed
+	 * @param iter the initial values
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 * @return a new index containing the initial values, with no changed groups recorded
+	 * @see GroupIndex
+	 */
+	public static final <T, K> GroupIndex<T, K> index(Iterable<? extends T> iter, Function<T, K> extractKey) {
+		GroupIndex<T, K> index = new GroupIndex<>(extractKey);
+		index.addAll(iter);
+		index.checkpoint();
+		return index;
+	}
+
+
+	/** Group values by key into a compact read-only multimap which stores all of the values in one array ordered by group
+	 * rather than one list per group. The values are iterated twice, once to count the size of each group and once to copy them into place.
+	 * @param iter the values to group, must iterate the same values in the same order each time it is iterated, as a {@link java.util.Collection} does
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored, called once per value
+	 * @return the groups in the order their keys were first encountered
+	 * @throws IllegalStateException if {@code iter} returns a different number of values the second time it is iterated
+	 * @see CompactMultimap
+	 */
+	public static final <T, K> CompactMultimap<K, T> groupByCompact(Iterable<? extends T> iter, Function<? super T, ? extends K> extractKey) {
+		return CompactMultimap.build(iter, extractKey);
+	}
+
+
+	/** Group a list of values by key in parallel using the common {@link ForkJoinPool}.
+	 * Each fork-join task groups a range of the list into its own map and adjacent ranges are merged, so the result is deterministic:
+	 * the same as a sequential {@link #groupBy(Iterable, Function, BiPredicate)}, groups in the order their first value
+	 * was encountered and values in list order. Keys are compared using {@link Object#equals(Object)}.
+	 * @param list the values to group, should be {@link RandomAccess}, other lists are split using their {@link List#spliterator()}
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored, called concurrently from multiple threads
+	 * @return a map of group keys to the values in each group
+	 */
+	public static final <T, K> Map<K, List<T>> groupByParallel(List<T> list, Function<T, K> extractKey) {
+		if(!(list instanceof RandomAccess)) {
+			return groupByParallel(list.spliterator(), extractKey);
+		}
+		return ForkJoinPool.commonPool().invoke(new GroupRangeTask<>(list, 0, list.size(), extractKey));
+	}
+
+
+	/** Group values by key in parallel using the common {@link ForkJoinPool}.
+	 * The spliterator is split using {@link Spliterator#trySplit()} and each fork-join task groups its portion into its own map,
+	 * adjacent portions are merged in encounter order so the result is deterministic:
+	 * groups in the order their first value was encountered and values in encounter order.
+	 * Keys are compared using {@link Object#equals(Object)}.
+	 * @param values the values to group
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored, called concurrently from multiple threads
+	 * @return a map of group keys to the values in each group
+	 */
+	public static final <T, K> Map<K, List<T>> groupByParallel(Spliterator<T> values, Function<T, K> extractKey) {
+		return ForkJoinPool.commonPool().invoke(new GroupSpliteratorTask<>(values, extractKey));
+	}
+
+
+	/** Append the groups from {@code right}, which were encountered after the groups in {@code left}, to {@code left}
+	 * @return {@code left}
+	 */
+	private static final <T, K> Map<K, List<T>> mergeGroups(Map<K, List<T>> left, Map<K, List<T>> right) {
+		for(Map.Entry<K, List<T>> entry : right.entrySet()) {
+			List<T> group = left.get(entry.getKey());
+			if(group == null) {
+				left.put(entry.getKey(), entry.getValue());
+			}
+			else {
+				group.addAll(entry.getValue());
+			}
+		}
+		return left;
+	}
+
+
+	private static final <T, K> void addToGroup(Map<K, List<T>> groups, K key, T val) {
+		List<T> group = groups.get(key);
+		if(group == null) {
+			groups.put(key, group = new ArrayList<>());
+		}
+		group.add(val);
+	}
+
+
+	private static final int estimateGroups(Iterable<?> iter, int expectedGroups) {
+		if(expectedGroups > 0) {
+			return expectedGroups;
+		}
+		return iter instanceof Collection ? Math.min(((Collection<?>)iter).size(), MAX_ESTIMATED_GROUPS) : 0;
+	}
+
+
+	private static final <T, K> List<List<T>> toCompactLists(List<Group<K, T>> groups) {
+		List<List<T>> res = new ArrayList<>(groups.size());
+		for(int i = 0, size = groups.size(); i < size; i++) {
+			ArrayList<T> values = groups.get(i).values;
+			values.trimToSize();
+			res.add(values);
+		}
+		return res;
+	}
+
+
+	/** Group values by key using the strategy appropriate for {@code equivalence}
+	 * @return the groups in encounter order, or key order if {@code equivalence} is not hashable
+	 */
+	private static final <T, K> List<Group<K, T>> group(Iterator<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		if(equivalence.isHashable()) {
+			return groupHashed(iter, extractKey, equivalence, 0);
+		}
+		else {
+			return groupBySorting(iter, extractKey, equivalence);
+		}
+	}
+
+
+	/** Single pass grouping into a chained hash table of groups
+	 * @param expectedGroups the number of groups to presize the table for, 0 for the default size
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final <T, K> List<Group<K, T>> groupHashed(Iterator<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence, int expectedGroups) {
+		List<Group<K, T>> groups = new ArrayList<>(Math.max(expectedGroups, 10));
+		Group<K, T>[] table = new Group[Hashing.tableSize(Math.max(expectedGroups, 12), 0.75f)];
+		int mask = table.length - 1;
+		while(iter.hasNext()) {
+			T val = iter.next();
+			K key = extractKey.apply(val);
+			if(key != null) {
+				int hash = Hashing.mix(equivalence.hash(key));
+				Group<K, T> group = table[hash & mask];
+				while(group != null && (group.hash != hash || !equivalence.equivalent(group.key, key))) {
+					group = group.next;
+				}
+				if(group == null) {
+					int idx = hash & mask;
+					group = new Group<>(key, hash, table[idx]);
+					table[idx] = group;
+					groups.add(group);
+					if(groups.size() > (table.length >> 2) * 3) {
+						table = rehash(table, groups);
+						mask = table.length - 1;
+					}
+				}
+				group.values.add(val);
+			}
+		}
+		return groups;
+	}
+
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final <T, K> Group<K, T>[] rehash(Group<K, T>[] table, List<Group<K, T>> groups) {
+		Group<K, T>[] newTable = new Group[table.length << 1];
+		int mask = newTable.length - 1;
+		for(int i = 0, size = groups.size(); i < size; i++) {
+			Group<K, T> group = groups.get(i);
+			int idx = group.hash & mask;
+			group.next = newTable[idx];
+			newTable[idx] = group;
+		}
+		return newTable;
+	}
+
+
+	/** Stable sort the values by key, then cluster adjacent equivalent keys.
+	 * An equivalence with no comparator sorts by {@link #defaultOrder(List)}
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final <T, K> List<Group<K, T>> groupBySorting(Iterator<T> iter, Function<T, K> extractKey, Equivalence<? super K> equivalence) {
+		List<Keyed<K, T>> keyed = new ArrayList<>();
+		while(iter.hasNext()) {
+			T val = iter.next();
+			K key = extractKey.apply(val);
+			if(key != null) {
+				keyed.add(new Keyed<>(key, val));
+			}
+		}
+		Comparator<? super K> comparator = equivalence.comparator() != null ? equivalence.comparator() : defaultOrder(keyed);
+		Keyed<K, T>[] sorted = keyed.toArray(new Keyed[keyed.size()]);
+		Arrays.sort(sorted, (a, b) -> comparator.compare(a.key, b.key));
+
+		List<Group<K, T>> groups = new ArrayList<>();
+		Group<K, T> group = null;
+		for(Keyed<K, T> entry : sorted) {
+			if(group == null || !equivalence.equivalent(group.key, entry.key)) {
+				group = new Group<>(entry.key, 0, null);
+				groups.add(group);
+			}
+			group.values.add(entry.value);
+		}
+		return groups;
+	}
+
+
+	/** The ordering used to cluster keys for a predicate only equivalence with no comparator: natural ordering if every key
+	 * is {@link Comparable} and of the same class, {@link Object#hashCode()} order otherwise.
+	 * Equivalent keys are only clustered if they are adjacent in this order, use {@link Equivalence#of(BiPredicate, Comparator)} to supply an ordering.
+	 */
+	@SuppressWarnings("unchecked")
+	private static final <K> Comparator<K> defaultOrder(List<? extends Keyed<K, ?>> keyed) {
+		Class<?> type = keyed.isEmpty() ? null : keyed.get(0).key.getClass();
+		boolean comparable = type != null && Comparable.class.isAssignableFrom(type);
+		for(int i = 1, size = keyed.size(); comparable && i < size; i++) {
+			comparable = keyed.get(i).key.getClass() == type;
+		}
+		return comparable ? (a, b) -> ((Comparable<Object>)a).compareTo(b) : (a, b) -> Integer.compare(a.hashCode(), b.hashCode());
+	}
+
+
+	/** A group's first key, its values, and a hash table chain link
+	 */
+	private static final class Group<K, T> {
+		final K key;
+		final int hash;
+		final ArrayList<T> values = new ArrayList<>();
+		Group<K, T> next;
+
+
+		Group(K key, int hash, Group<K, T> next) {
+			this.key = key;
+			this.hash = hash;
+			this.next = next;
+		}
+
+	}
+
+
+	/** A value and its encounter sequence number, used to break ties between equal values
+	 */
+	private static final class Ranked<T> {
+		T value;
+		long seq;
+
+
+		Ranked(T value, long seq) {
+			this.value = value;
+			this.seq = seq;
+		}
+
+	}
+
+
+	private static final class Keyed<K, T> {
+		final K key;
+		final T value;
+
+
+		Keyed(K key, T value) {
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class GroupRangeTask<T, K> extends RecursiveTask<Map<K, List<T>>> {
+		private final List<T> list;
+		private final int from;
+		private final int to;
+		private final Function<T, K> extractKey;
+
+
+		GroupRangeTask(List<T> list, int from, int to, Function<T, K> extractKey) {
+			this.list = list;
+			this.from = from;
+			this.to = to;
+			this.extractKey = extractKey;
+		}
+
+
+		@Override
+		protected Map<K, List<T>> compute() {
+			if(to - from > PARALLEL_LEAF_SIZE) {
+				int mid = (from + to) >>> 1;
+				GroupRangeTask<T, K> left = new GroupRangeTask<>(list, from, mid, extractKey);
+				left.fork();
+				Map<K, List<T>> right = new GroupRangeTask<>(list, mid, to, extractKey).compute();
+				return mergeGroups(left.join(), right);
+			}
+			Map<K, List<T>> groups = new LinkedHashMap<>();
+			for(int i = from; i < to; i++) {
+				T val = list.get(i);
+				K key = extractKey.apply(val);
+				if(key != null) {
+					addToGroup(groups, key, val);
+				}
+			}
+			return groups;
+		}
+
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class GroupSpliteratorTask<T, K> extends RecursiveTask<Map<K, List<T>>> {
+		private final Spliterator<T> values;
+		private final Function<T, K> extractKey;
+
+
+		GroupSpliteratorTask(Spliterator<T> values, Function<T, K> extractKey) {
+			this.values = values;
+			this.extractKey = extractKey;
+		}
+
+
+		@Override
+		protected Map<K, List<T>> compute() {
+			Spliterator<T> prefix;
+			if(values.estimateSize() > PARALLEL_LEAF_SIZE && (prefix = values.trySplit()) != null) {
+				GroupSpliteratorTask<T, K> left = new GroupSpliteratorTask<>(prefix, extractKey);
+				left.fork();
+				Map<K, List<T>> right = new GroupSpliteratorTask<>(values, extractKey).compute();
+				return mergeGroups(left.join(), right);
+			}
+			Map<K, List<T>> groups = new LinkedHashMap<>();
+			values.forEachRemaining((val) -> {
+				K key = extractKey.apply(val);
+				if(key != null) {
+					addToGroup(groups, key, val);
+				}
+			});
+			return groups;
+		}
+
+	}
+
 }
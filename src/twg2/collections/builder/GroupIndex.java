@@ -0,0 +1,262 @@
+package twg2.collections.builder;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/** A grouping of values by key which is maintained incrementally as values are added, removed, or updated,
+ * rather than regrouping all of the values after each change.<br>
+ * Each change costs O(1) hash operations. Values in a group are tracked using {@link Object#equals(Object)}
+ * and {@link Object#hashCode()}, equal values are counted rather than stored repeatedly.
+ * The keys of groups which changed are recorded until the next {@link #checkpoint()}.<br>
+ * Values must not change their key while they are in the index, use {@link #rekey(Object, Object)} or {@link #update(Object, Object)}
+ * to move a value whose key changed. Not thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <T> the type of values
+ * @param <K> the type of group keys
+ * @see GroupBy#index(Iterable, Function)
+ */
+public final class GroupIndex<T, K> {
+	private final Function<T, K> extractKey;
+	private final Map<K, Group<T>> groups = new LinkedHashMap<>();
+	private final Map<K, Collection<T>> groupsView = Collections.unmodifiableMap(groups);
+	private final Set<K> changed = new LinkedHashSet<>();
+	private int size;
+
+
+	/**
+	 * @param extractKey function which returns the key for a value, values with null keys are ignored
+	 */
+	public GroupIndex(Function<T, K> extractKey) {
+		this.extractKey = extractKey;
+	}
+
+
+	/**
+	 * @return the total number of values in all of the groups
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * @return the number of groups
+	 */
+	public int groupCount() {
+		return groups.size();
+	}
+
+
+	/**
+	 * @return a read-only view of the values in a group, which reflects later changes while the group exists, or null if no group exists for the key
+	 */
+	public Collection<T> getGroup(K key) {
+		return groups.get(key);
+	}
+
+
+	/**
+	 * @return a read-only view of the group keys, in the order the groups were created
+	 */
+	public Set<K> keySet() {
+		return groupsView.keySet();
+	}
+
+
+	/**
+	 * @return a read-only view of this index as a map of group keys to read-only group views
+	 */
+	public Map<K, Collection<T>> asMap() {
+		return groupsView;
+	}
+
+
+	/** Add a value to its group, creating the group if it does not exist
+	 * @return true if the value was added, false if its key was null
+	 */
+	public boolean add(T value) {
+		K key = extractKey.apply(value);
+		if(key == null) {
+			return false;
+		}
+		Group<T> group = groups.get(key);
+		if(group == null) {
+			groups.put(key, group = new Group<>());
+		}
+		group.addOne(value);
+		size++;
+		changed.add(key);
+		return true;
+	}
+
+
+	/** Add values to their groups
+	 * @return the number of values added
+	 */
+	public int addAll(Iterable<? extends T> values) {
+		int count = 0;
+		for(T value : values) {
+			if(add(value)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	/** Remove one occurrence of a value from its group, removing the group if it becomes empty
+	 * @return true if the value was removed, false if it was not in the index
+	 */
+	public boolean remove(T value) {
+		return remove(value, extractKey.apply(value));
+	}
+
+
+	/** Update a value in the index by removing the old value and adding the new value.
+	 * The new value may have a different key than the old value.
+	 * @param oldValue the value currently in the index, with the key it had when it was added
+	 * @param newValue the replacement value
+	 * @return true if the old value was found and removed, the new value is added either way
+	 */
+	public boolean update(T oldValue, T newValue) {
+		boolean removed = remove(oldValue);
+		add(newValue);
+		return removed;
+	}
+
+
+	/** Move a value whose key has changed since it was added to the index into the group for its current key
+	 * @param value the value
+	 * @param previousKey the key the value had when it was added
+	 * @return true if the value was found in the {@code previousKey} group
+	 */
+	public boolean rekey(T value, K previousKey) {
+		boolean removed = remove(value, previousKey);
+		add(value);
+		return removed;
+	}
+
+
+	/**
+	 * @return a copy of the keys of the groups which have been added, removed, or modified since the last {@link #checkpoint()}
+	 */
+	public Set<K> changedKeys() {
+		return new LinkedHashSet<>(changed);
+	}
+
+
+	/** Get the keys of the groups which changed since the last checkpoint and start tracking changes from this point
+	 * @return the keys of the groups which have been added, removed, or modified since the last checkpoint, in the order they first changed
+	 */
+	public Set<K> checkpoint() {
+		Set<K> res = changedKeys();
+		changed.clear();
+		return res;
+	}
+
+
+	private boolean remove(T value, K key) {
+		if(key == null) {
+			return false;
+		}
+		Group<T> group = groups.get(key);
+		if(group == null || !group.removeOne(value)) {
+			return false;
+		}
+		if(group.isEmpty()) {
+			groups.remove(key);
+		}
+		size--;
+		changed.add(key);
+		return true;
+	}
+
+
+	@Override
+	public String toString() {
+		return groups.toString();
+	}
+
+
+	/** A read-only collection of the values in one group, backed by a map of values to occurrence counts
+	 */
+	private static final class Group<T> extends AbstractCollection<T> {
+		private final Map<T, int[]> counts = new LinkedHashMap<>();
+		private int size;
+
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+		@Override
+		public boolean contains(Object o) {
+			return counts.containsKey(o);
+		}
+
+
+		@Override
+		public Iterator<T> iterator() {
+			Iterator<Map.Entry<T, int[]>> entries = counts.entrySet().iterator();
+			return new Iterator<T>() {
+				private T value;
+				private int remaining;
+
+				@Override
+				public boolean hasNext() {
+					return remaining > 0 || entries.hasNext();
+				}
+
+				@Override
+				public T next() {
+					if(remaining == 0) {
+						if(!entries.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Map.Entry<T, int[]> entry = entries.next();
+						value = entry.getKey();
+						remaining = entry.getValue()[0];
+					}
+					remaining--;
+					return value;
+				}
+			};
+		}
+
+
+		void addOne(T value) {
+			int[] count = counts.get(value);
+			if(count == null) {
+				counts.put(value, count = new int[1]);
+			}
+			count[0]++;
+			size++;
+		}
+
+
+		boolean removeOne(T value) {
+			int[] count = counts.get(value);
+			if(count == null) {
+				return false;
+			}
+			if(--count[0] == 0) {
+				counts.remove(value);
+			}
+			size--;
+			return true;
+		}
+
+	}
+
+}
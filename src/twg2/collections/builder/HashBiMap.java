@@ -0,0 +1,227 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/** A mutable {@link BiMap} backed by a forward and a backward {@link HashMap}.
+ * All lookups, including {@link #containsValue(Object)} and lookups through {@link #inverse()}, are hash lookups.
+ * Null keys and values are allowed. Not thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ */
+public final class HashBiMap<K, V> extends AbstractMap<K, V> implements BiMap<K, V> {
+	private final Map<K, V> forward;
+	private final Map<V, K> backward;
+	private final HashBiMap<V, K> inverse;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	public HashBiMap() {
+		this(16);
+	}
+
+
+	/**
+	 * @param expectedSize the number of entries this map can hold without resizing
+	 */
+	public HashBiMap(int expectedSize) {
+		this.forward = new HashMap<>(Hashing.hashMapCapacity(expectedSize));
+		this.backward = new HashMap<>(Hashing.hashMapCapacity(expectedSize));
+		this.inverse = new HashBiMap<>(backward, forward, this);
+	}
+
+
+	/**
+	 * @param source the initial entries of the map
+	 * @throws IllegalArgumentException if {@code source}'s values are not unique
+	 */
+	public HashBiMap(Map<? extends K, ? extends V> source) {
+		this(source.size());
+		putAll(source);
+	}
+
+
+	private HashBiMap(Map<K, V> forward, Map<V, K> backward, HashBiMap<V, K> inverse) {
+		this.forward = forward;
+		this.backward = backward;
+		this.inverse = inverse;
+	}
+
+
+	@Override
+	public int size() {
+		return forward.size();
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return forward.containsKey(key);
+	}
+
+
+	@Override
+	public boolean containsValue(Object value) {
+		return backward.containsKey(value);
+	}
+
+
+	@Override
+	public V get(Object key) {
+		return forward.get(key);
+	}
+
+
+	@Override
+	public V put(K key, V value) {
+		return put(key, value, false);
+	}
+
+
+	@Override
+	public V forcePut(K key, V value) {
+		return put(key, value, true);
+	}
+
+
+	@Override
+	public V remove(Object key) {
+		if(!forward.containsKey(key)) {
+			return null;
+		}
+		V value = forward.remove(key);
+		backward.remove(value);
+		return value;
+	}
+
+
+	@Override
+	public void clear() {
+		forward.clear();
+		backward.clear();
+	}
+
+
+	@Override
+	public Set<V> values() {
+		return inverse.keySet();
+	}
+
+
+	@Override
+	public BiMap<V, K> inverse() {
+		return inverse;
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	private V put(K key, V value, boolean force) {
+		boolean hasKey = forward.containsKey(key);
+		if(hasKey && Objects.equals(forward.get(key), value)) {
+			return value;
+		}
+		if(backward.containsKey(value)) {
+			if(!force) {
+				throw new IllegalArgumentException("value already present in bimap: " + value);
+			}
+			forward.remove(backward.remove(value));
+		}
+		V prev = forward.put(key, value);
+		if(hasKey) {
+			backward.remove(prev);
+		}
+		backward.put(value, key);
+		return prev;
+	}
+
+
+	/** A view of the forward map's entries which keeps the backward map in sync when entries are removed or changed
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return forward.size();
+		}
+
+
+		@Override
+		public boolean contains(Object o) {
+			return forward.entrySet().contains(o);
+		}
+
+
+		@Override
+		public void clear() {
+			HashBiMap.this.clear();
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			Iterator<Map.Entry<K, V>> iter = forward.entrySet().iterator();
+			return new Iterator<Map.Entry<K, V>>() {
+				private Map.Entry<K, V> last;
+
+				@Override
+				public boolean hasNext() {
+					return iter.hasNext();
+				}
+
+				@Override
+				public Map.Entry<K, V> next() {
+					Map.Entry<K, V> entry = iter.next();
+					last = entry;
+					return new AbstractMap.SimpleEntry<K, V>(entry) {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						public V setValue(V value) {
+							V prev = entry.getValue();
+							if(Objects.equals(prev, value)) {
+								return prev;
+							}
+							if(backward.containsKey(value)) {
+								throw new IllegalArgumentException("value already present in bimap: " + value);
+							}
+							entry.setValue(value);
+							backward.remove(prev);
+							backward.put(value, entry.getKey());
+							super.setValue(value);
+							return prev;
+						}
+					};
+				}
+
+				@Override
+				public void remove() {
+					if(last == null) {
+						throw new IllegalStateException();
+					}
+					V value = last.getValue();
+					iter.remove();
+					backward.remove(value);
+					last = null;
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,59 @@
+package twg2.collections.builder;
+
+/** Hash mixing and table sizing helpers shared by the open-addressing collections in this package
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class Hashing {
+	/** The maximum power of two table size */
+	static final int MAX_TABLE_SIZE = 1 << 30;
+
+	private Hashing() { throw new AssertionError("cannot instantiate static class Hashing"); }
+
+
+	/** Spread the bits of an integer so that sequential values do not cluster in power of two sized tables
+	 */
+	static final int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+
+	/** Spread the bits of a long and fold them into an integer
+	 */
+	static final int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= (h >>> 32);
+		return (int)(h ^ (h >>> 16));
+	}
+
+
+	/** Calculate the power of two table size required to store {@code expectedSize} elements without exceeding {@code loadFactor}
+	 * @param expectedSize the number of elements the table is expected to hold
+	 * @param loadFactor the maximum ratio of elements to table size, between 0 and 1
+	 * @return a power of two table size, at least 2
+	 */
+	static final int tableSize(int expectedSize, float loadFactor) {
+		long required = Math.max(2L, (long)Math.ceil(expectedSize / (double)loadFactor));
+		if(required > MAX_TABLE_SIZE) {
+			if(expectedSize >= MAX_TABLE_SIZE) {
+				throw new IllegalArgumentException("table too large, cannot hold " + expectedSize + " elements");
+			}
+			return MAX_TABLE_SIZE;
+		}
+		return Integer.highestOneBit((int)required - 1) << 1;
+	}
+
+
+	/** Calculate the initial capacity to pass to a {@link java.util.HashMap} constructor so that {@code expectedSize} entries can be added without resizing
+	 * @param expectedSize the number of entries the map is expected to hold
+	 * @return the initial capacity
+	 */
+	static final int hashMapCapacity(int expectedSize) {
+		if(expectedSize < 3) {
+			return expectedSize + 1;
+		}
+		return expectedSize < (1 << 30) ? (int)(expectedSize / 0.75f + 1.0f) : Integer.MAX_VALUE;
+	}
+
+}
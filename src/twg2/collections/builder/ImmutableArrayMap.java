@@ -0,0 +1,326 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/** Immutable maps which store their keys and values in one flat array of alternating keys and values, no entry objects are stored.
+ * Small maps are searched linearly, larger maps are open-addressing (linear probing) hash tables.
+ * A null key is stored as a sentinel key, an empty table slot is a null key.
+ * Entries returned by the entry set are immutable and created on request.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#immutable(Iterator)
+ */
+abstract class ImmutableArrayMap<K, V> extends AbstractMap<K, V> {
+	/** The maximum number of entries stored in a linearly searched map */
+	static final int MAX_SMALL_SIZE = 8;
+	private static final float LOAD_FACTOR = 0.5f;
+	private static final Object NULL_KEY = new Object();
+
+	/** keys at even indices and their values at the following odd index, a null key marks an unused pair */
+	final Object[] table;
+	final int size;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	ImmutableArrayMap(Object[] table, int size) {
+		this.table = table;
+		this.size = size;
+	}
+
+
+	/**
+	 * @return the table index of the key, or -1 if the key does not exist in this map
+	 */
+	abstract int indexOf(Object key);
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) > -1;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		int i = indexOf(key);
+		return i > -1 ? (V)table[i + 1] : null;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int i = indexOf(key);
+		return i > -1 ? (V)table[i + 1] : defaultValue;
+	}
+
+
+	@Override
+	public boolean containsValue(Object value) {
+		Object[] table = this.table;
+		for(int i = 0, n = table.length; i < n; i += 2) {
+			if(table[i] != null && Objects.equals(value, table[i + 1])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Object[] table = this.table;
+		for(int i = 0, n = table.length; i < n; i += 2) {
+			Object key = table[i];
+			if(key != null) {
+				action.accept((K)unmaskNull(key), (V)table[i + 1]);
+			}
+		}
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	/** Create an immutable map from a sequence of entries, the last value of each duplicate key is kept
+	 */
+	static <K, V> Map<K, V> copyOf(Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+		Object[] kvs = new Object[MAX_SMALL_SIZE * 2];
+		int n = 0;
+		while(entries.hasNext()) {
+			Map.Entry<? extends K, ? extends V> entry = entries.next();
+			if(n == kvs.length) {
+				kvs = Arrays.copyOf(kvs, n * 2);
+			}
+			kvs[n++] = entry.getKey();
+			kvs[n++] = entry.getValue();
+		}
+		return copyOf(kvs, n / 2);
+	}
+
+
+	/** Create an immutable map from an array of entries, the last value of each duplicate key is kept
+	 */
+	static <K, V> Map<K, V> copyOf(Map.Entry<? extends K, ? extends V>[] entries) {
+		Object[] kvs = new Object[entries.length * 2];
+		for(int i = 0, n = entries.length; i < n; i++) {
+			kvs[i * 2] = entries[i].getKey();
+			kvs[i * 2 + 1] = entries[i].getValue();
+		}
+		return copyOf(kvs, entries.length);
+	}
+
+
+	/**
+	 * @param kvs alternating keys and values, may contain duplicate keys
+	 * @param count the number of key-value pairs in {@code kvs}
+	 * @return an {@link ImmutableEnumMap} if all of the keys are constants of the same enum, a {@link SortedArrayMap} if there are
+	 * between {@link #MAX_SMALL_SIZE} and {@link SortedArrayMap#MAX_AUTO_SIZE} keys which are all strings or all the same boxed integer type, else an {@link ImmutableArrayMap}
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static <K, V> Map<K, V> copyOf(Object[] kvs, int count) {
+		Class<?> enumType = ImmutableEnumMap.commonEnumType(kvs, count);
+		if(enumType != null) {
+			return (Map<K, V>)ImmutableEnumMap.create((Class)enumType, kvs, count);
+		}
+		if(count <= MAX_SMALL_SIZE) {
+			return Small.create(kvs, count);
+		}
+		if(count <= SortedArrayMap.MAX_AUTO_SIZE) {
+			Map<K, V> sorted = SortedArrayMap.createIfComparable(kvs, count);
+			if(sorted != null) {
+				return sorted;
+			}
+		}
+		return Hashed.create(kvs, count);
+	}
+
+
+	static final Object maskNull(Object key) {
+		return key == null ? NULL_KEY : key;
+	}
+
+
+	static final Object unmaskNull(Object key) {
+		return key == NULL_KEY ? null : key;
+	}
+
+
+	/** A map of at most {@link ImmutableArrayMap#MAX_SMALL_SIZE} entries stored in insertion order and searched linearly
+	 */
+	static final class Small<K, V> extends ImmutableArrayMap<K, V> {
+
+		private Small(Object[] table, int size) {
+			super(table, size);
+		}
+
+
+		@Override
+		int indexOf(Object key) {
+			Object k = maskNull(key);
+			Object[] table = this.table;
+			for(int i = 0, n = table.length; i < n; i += 2) {
+				if(k.equals(table[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+
+		static <K, V> Small<K, V> create(Object[] kvs, int count) {
+			Object[] table = new Object[count * 2];
+			int n = 0;
+			outer:
+			for(int i = 0; i < count * 2; i += 2) {
+				Object key = maskNull(kvs[i]);
+				for(int j = 0; j < n; j += 2) {
+					if(key.equals(table[j])) {
+						table[j + 1] = kvs[i + 1];
+						continue outer;
+					}
+				}
+				table[n] = key;
+				table[n + 1] = kvs[i + 1];
+				n += 2;
+			}
+			return new Small<>(n < table.length ? Arrays.copyOf(table, n) : table, n / 2);
+		}
+
+	}
+
+
+	/** A linear probing hash table with a load factor of at most {@link ImmutableArrayMap#LOAD_FACTOR}
+	 */
+	static final class Hashed<K, V> extends ImmutableArrayMap<K, V> {
+		/** the number of pairs in the table minus one, the table holds {@code (mask + 1) * 2} elements */
+		private final int mask;
+
+
+		private Hashed(Object[] table, int size) {
+			super(table, size);
+			this.mask = table.length / 2 - 1;
+		}
+
+
+		@Override
+		int indexOf(Object key) {
+			Object k = maskNull(key);
+			Object[] table = this.table;
+			int mask = this.mask;
+			for(int i = Hashing.mix(k.hashCode()) & mask; ; i = (i + 1) & mask) {
+				Object tk = table[i * 2];
+				if(tk == null) {
+					return -1;
+				}
+				if(k.equals(tk)) {
+					return i * 2;
+				}
+			}
+		}
+
+
+		static <K, V> Hashed<K, V> create(Object[] kvs, int count) {
+			int tableSize = Hashing.tableSize(count, LOAD_FACTOR);
+			Object[] table = new Object[tableSize * 2];
+			int mask = tableSize - 1;
+			int size = 0;
+			for(int j = 0; j < count * 2; j += 2) {
+				Object key = maskNull(kvs[j]);
+				int i = Hashing.mix(key.hashCode()) & mask;
+				Object tk;
+				while((tk = table[i * 2]) != null && !key.equals(tk)) {
+					i = (i + 1) & mask;
+				}
+				if(tk == null) {
+					table[i * 2] = key;
+					size++;
+				}
+				table[i * 2 + 1] = kvs[j + 1];
+			}
+			return new Hashed<>(table, size);
+		}
+
+	}
+
+
+	/** A read-only view of the table's occupied pairs
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			int i = indexOf(entry.getKey());
+			return i > -1 && Objects.equals(table[i + 1], entry.getValue());
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+				private final Object[] tbl = table;
+				private int next = advance(0);
+
+				@Override
+				public boolean hasNext() {
+					return next < tbl.length;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Map.Entry<K, V> next() {
+					int i = next;
+					if(i >= tbl.length) {
+						throw new NoSuchElementException();
+					}
+					next = advance(i + 2);
+					return new AbstractMap.SimpleImmutableEntry<>((K)unmaskNull(tbl[i]), (V)tbl[i + 1]);
+				}
+
+				private int advance(int i) {
+					while(i < tbl.length && tbl[i] == null) {
+						i += 2;
+					}
+					return i;
+				}
+			};
+		}
+
+	}
+
+}
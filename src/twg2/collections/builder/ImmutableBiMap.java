@@ -0,0 +1,100 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/** An immutable {@link BiMap} backed by a forward and a backward compact immutable map (see {@link ImmutableArrayMap})
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#immutableBiMap(Map)
+ */
+final class ImmutableBiMap<K, V> extends AbstractMap<K, V> implements BiMap<K, V> {
+	private final Map<K, V> forward;
+	private final ImmutableBiMap<V, K> inverse;
+
+
+	private ImmutableBiMap(Map<K, V> forward, Map<V, K> backward) {
+		this.forward = forward;
+		this.inverse = new ImmutableBiMap<>(backward, this);
+	}
+
+
+	private ImmutableBiMap(Map<K, V> forward, ImmutableBiMap<V, K> inverse) {
+		this.forward = forward;
+		this.inverse = inverse;
+	}
+
+
+	@Override
+	public int size() {
+		return forward.size();
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return forward.containsKey(key);
+	}
+
+
+	@Override
+	public boolean containsValue(Object value) {
+		return inverse.forward.containsKey(value);
+	}
+
+
+	@Override
+	public V get(Object key) {
+		return forward.get(key);
+	}
+
+
+	@Override
+	public V forcePut(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+
+	@Override
+	public Set<V> values() {
+		return inverse.forward.keySet();
+	}
+
+
+	@Override
+	public BiMap<V, K> inverse() {
+		return inverse;
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return forward.entrySet();
+	}
+
+
+	/**
+	 * @throws IllegalArgumentException if {@code source}'s values are not unique
+	 */
+	static <K, V> ImmutableBiMap<K, V> copyOf(Map<? extends K, ? extends V> source) {
+		int size = source.size();
+		Object[] kvs = new Object[size * 2];
+		Object[] vks = new Object[size * 2];
+		int i = 0;
+		for(Map.Entry<? extends K, ? extends V> entry : source.entrySet()) {
+			kvs[i] = vks[i + 1] = entry.getKey();
+			kvs[i + 1] = vks[i] = entry.getValue();
+			i += 2;
+		}
+		Map<K, V> forward = ImmutableArrayMap.copyOf(kvs, size);
+		Map<V, K> backward = ImmutableArrayMap.copyOf(vks, size);
+		if(backward.size() != forward.size()) {
+			throw new IllegalArgumentException("map values are not unique, cannot invert map");
+		}
+		return new ImmutableBiMap<>(forward, backward);
+	}
+
+}
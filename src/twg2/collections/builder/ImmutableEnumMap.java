@@ -0,0 +1,198 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/** An immutable map with enum keys which stores its values in an array indexed by each key's {@link Enum#ordinal()}.
+ * Lookups are an array load with no hashing, no entry objects are stored. Iterates in ordinal order, like {@link java.util.EnumMap}.
+ * Null values are allowed, null keys are not.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the enum type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#immutable(Class, Iterable)
+ */
+final class ImmutableEnumMap<K extends Enum<K>, V> extends AbstractMap<K, V> {
+	/** marks the value of an ordinal which is not a key in the map */
+	private static final Object ABSENT = new Object();
+
+	private final Class<K> keyType;
+	/** all of the key type's constants, shared and never modified */
+	private final K[] universe;
+	private final Object[] values;
+	private final int size;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	private ImmutableEnumMap(Class<K> keyType, Object[] values, int size) {
+		this.keyType = keyType;
+		this.universe = EnumTables.constants(keyType);
+		this.values = values;
+		this.size = size;
+	}
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return isKeyType(key) && values[((Enum<?>)key).ordinal()] != ABSENT;
+	}
+
+
+	@Override
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		if(!isKeyType(key)) {
+			return defaultValue;
+		}
+		Object val = values[((Enum<?>)key).ordinal()];
+		return val != ABSENT ? (V)val : defaultValue;
+	}
+
+
+	@Override
+	public boolean containsValue(Object value) {
+		for(Object val : values) {
+			if(val != ABSENT && Objects.equals(value, val)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Object[] values = this.values;
+		for(int i = 0, n = values.length; i < n; i++) {
+			if(values[i] != ABSENT) {
+				action.accept(universe[i], (V)values[i]);
+			}
+		}
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	private boolean isKeyType(Object key) {
+		return key instanceof Enum && ((Enum<?>)key).getDeclaringClass() == keyType;
+	}
+
+
+	/** Create an immutable enum map, the last value of each duplicate key is kept
+	 * @param keyType the enum class of the keys
+	 * @param kvs alternating keys and values, the keys must be non-null constants of {@code keyType}
+	 * @param count the number of key-value pairs in {@code kvs}
+	 */
+	static <K extends Enum<K>, V> ImmutableEnumMap<K, V> create(Class<K> keyType, Object[] kvs, int count) {
+		Object[] values = new Object[EnumTables.constants(keyType).length];
+		Arrays.fill(values, ABSENT);
+		int size = 0;
+		for(int i = 0; i < count * 2; i += 2) {
+			int ordinal = keyType.cast(Objects.requireNonNull(kvs[i], "enum map key")).ordinal();
+			if(values[ordinal] == ABSENT) {
+				size++;
+			}
+			values[ordinal] = kvs[i + 1];
+		}
+		return new ImmutableEnumMap<>(keyType, values, size);
+	}
+
+
+	/**
+	 * @return the enum class shared by all of the keys, or null if there are no keys or any key is null or not an enum of the same class
+	 */
+	static Class<?> commonEnumType(Object[] kvs, int count) {
+		if(count == 0 || !(kvs[0] instanceof Enum)) {
+			return null;
+		}
+		Class<?> type = ((Enum<?>)kvs[0]).getDeclaringClass();
+		for(int i = 2; i < count * 2; i += 2) {
+			if(!(kvs[i] instanceof Enum) || ((Enum<?>)kvs[i]).getDeclaringClass() != type) {
+				return null;
+			}
+		}
+		return type;
+	}
+
+
+	/** A read-only view of the present keys and values, in ordinal order
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+				private int next = advance(0);
+
+				@Override
+				public boolean hasNext() {
+					return next < values.length;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Map.Entry<K, V> next() {
+					int i = next;
+					if(i >= values.length) {
+						throw new NoSuchElementException();
+					}
+					next = advance(i + 1);
+					return new AbstractMap.SimpleImmutableEntry<>(universe[i], (V)values[i]);
+				}
+
+				private int advance(int i) {
+					while(i < values.length && values[i] == ABSENT) {
+						i++;
+					}
+					return i;
+				}
+			};
+		}
+
+	}
+
+}
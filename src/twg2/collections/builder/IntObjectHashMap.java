@@ -0,0 +1,269 @@
+package twg2.collections.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** An open-addressing (linear probing) hash map with {@code int} keys and object values.
+ * Keys are stored unboxed in a flat array, no entry objects are created.
+ * Null values are allowed. Not thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <V> the type of values in the map
+ */
+public final class IntObjectHashMap<V> {
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** A key-value consumer
+	 */
+	@FunctionalInterface
+	public static interface EntryConsumer<V> {
+		public void accept(int key, V value);
+	}
+
+
+	/** 0 marks an empty slot, the key 0 itself is tracked by {@link #hasZeroKey} */
+	private int[] keys;
+	private Object[] values;
+	private boolean hasZeroKey;
+	private V zeroValue;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+
+	public IntObjectHashMap() {
+		this(16);
+	}
+
+
+	/**
+	 * @param expectedSize the number of entries this map can hold without resizing
+	 */
+	public IntObjectHashMap(int expectedSize) {
+		allocate(Hashing.tableSize(expectedSize, LOAD_FACTOR));
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public boolean containsKey(int key) {
+		return key == 0 ? hasZeroKey : slot(key) > -1;
+	}
+
+
+	/**
+	 * @return the value associated with the key, or null if the key does not exist in this map
+	 */
+	public V get(int key) {
+		return getOrDefault(key, null);
+	}
+
+
+	/**
+	 * @return the value associated with the key, or {@code defaultValue} if the key does not exist in this map
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(int key, V defaultValue) {
+		if(key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		int i = slot(key);
+		return i > -1 ? (V)values[i] : defaultValue;
+	}
+
+
+	/**
+	 * @return the previous value associated with the key, or null if the key did not exist in this map
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(key == 0) {
+			V prev = zeroValue;
+			if(!hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			zeroValue = value;
+			return prev;
+		}
+		int[] keys = this.keys;
+		int mask = this.mask;
+		int i = Hashing.mix(key) & mask;
+		for(int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+			if(k == key) {
+				V prev = (V)values[i];
+				values[i] = value;
+				return prev;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if(++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+
+	/**
+	 * @return the value which was associated with the key, or null if the key did not exist in this map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if(key == 0) {
+			V prev = zeroValue;
+			if(hasZeroKey) {
+				hasZeroKey = false;
+				zeroValue = null;
+				size--;
+			}
+			return prev;
+		}
+		int i = slot(key);
+		if(i < 0) {
+			return null;
+		}
+		V prev = (V)values[i];
+		size--;
+		// shift following entries back into the gap so that probe sequences remain unbroken
+		int[] keys = this.keys;
+		Object[] values = this.values;
+		int mask = this.mask;
+		for(int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+			int home = Hashing.mix(keys[j]) & mask;
+			if(((j - home) & mask) >= ((j - i) & mask)) {
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		keys[i] = 0;
+		values[i] = null;
+		return prev;
+	}
+
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		hasZeroKey = false;
+		zeroValue = null;
+		size = 0;
+	}
+
+
+	/** Call {@code consumer} with each key-value in this map, in no particular order
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> consumer) {
+		if(hasZeroKey) {
+			consumer.accept(0, zeroValue);
+		}
+		int[] keys = this.keys;
+		Object[] values = this.values;
+		for(int i = 0, n = keys.length; i < n; i++) {
+			if(keys[i] != 0) {
+				consumer.accept(keys[i], (V)values[i]);
+			}
+		}
+	}
+
+
+	/**
+	 * @return a new array containing this map's keys, in the same order as {@link #values()}
+	 */
+	public int[] keys() {
+		int[] res = new int[size];
+		int n = 0;
+		if(hasZeroKey) {
+			res[n++] = 0;
+		}
+		for(int k : keys) {
+			if(k != 0) {
+				res[n++] = k;
+			}
+		}
+		return res;
+	}
+
+
+	/**
+	 * @return a new list containing this map's values, in the same order as {@link #keys()}
+	 */
+	public List<V> values() {
+		List<V> res = new ArrayList<>(size);
+		forEach((k, v) -> res.add(v));
+		return res;
+	}
+
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(size * 8 + 2);
+		sb.append('{');
+		forEach((k, v) -> {
+			if(sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(k).append('=').append(v);
+		});
+		return sb.append('}').toString();
+	}
+
+
+	/**
+	 * @return the table index of a non-zero key, or -1 if it does not exist
+	 */
+	private int slot(int key) {
+		int[] keys = this.keys;
+		int mask = this.mask;
+		for(int i = Hashing.mix(key) & mask; ; i = (i + 1) & mask) {
+			int k = keys[i];
+			if(k == key) {
+				return i;
+			}
+			if(k == 0) {
+				return -1;
+			}
+		}
+	}
+
+
+	private void rehash(int newTableSize) {
+		int[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		allocate(newTableSize);
+		int[] keys = this.keys;
+		Object[] values = this.values;
+		int mask = this.mask;
+		for(int j = 0, n = oldKeys.length; j < n; j++) {
+			int k = oldKeys[j];
+			if(k != 0) {
+				int i = Hashing.mix(k) & mask;
+				while(keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+
+	private void allocate(int tableSize) {
+		this.keys = new int[tableSize];
+		this.values = new Object[tableSize];
+		this.mask = tableSize - 1;
+		this.resizeAt = Math.min(tableSize - 1, (int)(tableSize * LOAD_FACTOR));
+	}
+
+}
@@ -1,9 +1,20 @@
 package twg2.collections.builder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.OptionalInt;
 import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /** A set of methods to add {@link Collection collections}, {@link List lists}, or
  * {@code arrays} to a list
@@ -11,16 +22,43 @@ import java.util.RandomAccess;
  * @since 2014-11-8
  */
 public final class ListAdd {
+	private static final int ADDED = 0;
+	private static final int SKIPPED_NULL = 1;
+	private static final int SKIPPED_DUPLICATE = 2;
+	private static final int NOT_ADDED = 3;
+
+	/** Below this number of items, {@code copyParallel()} copies the items on the calling thread */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	private static volatile AddStats.Listener statsListener;
+
 
 	private ListAdd() { throw new AssertionError("cannot instantiate static class ListAdd"); }
 
 
+	/** Set a global listener which receives the counts from every {@code addToList()} call that reports {@link AddStats}.
+	 * Calls that do not report stats are not affected by this listener.
+	 * @param listener the listener, or null to remove the current listener
+	 */
+	public static final void setStatsListener(AddStats.Listener listener) {
+		statsListener = listener;
+	}
+
+
+	/**
+	 * @return the current global stats listener, null if there is none
+	 */
+	public static final AddStats.Listener getStatsListener() {
+		return statsListener;
+	}
+
+
 	/** Create a shallow copy of an iterable set of values with a given condition
 	 * @return the set of keys from the map provided or a new empty list of the map was empty
 	 * @see AddCondition
 	 */
 	public static final <T> List<T> copy(Iterable<T> values, AddCondition condition) {
-		List<T> list = new ArrayList<>();
+		List<T> list = values instanceof Collection ? new ArrayList<>(((Collection<T>)values).size()) : new ArrayList<>();
 		if(values != null) {
 			addToList(values, list, condition);
 		}
@@ -28,6 +66,117 @@ public final class ListAdd {
 	}
 
 
+	/** Create a shallow copy of a collection of values with a given condition, using the common {@link ForkJoinPool}
+	 * to check for duplicates in parallel. The resulting list contains the same items in the same order as {@link #copy(Iterable, AddCondition)}.
+	 * @see #copyParallel(Spliterator, AddCondition)
+	 */
+	public static final <T> List<T> copyParallel(Collection<? extends T> values, AddCondition condition) {
+		if(values == null) {
+			return new ArrayList<>();
+		}
+		return copyParallel(values.toArray(), condition);
+	}
+
+
+	/** Create a shallow copy of a set of values with a given condition, using the common {@link ForkJoinPool}
+	 * to check for duplicates in parallel.<br>
+	 * Each non-null value's first occurrence index is recorded in a concurrent index, the first occurrence of each value is
+	 * kept, and the result is assembled in encounter order into a list presized to the number of kept values.
+	 * The resulting list contains the same items in the same order as {@link #copy(Iterable, AddCondition)}
+	 * and the same error is thrown if {@code condition} does not allow null or duplicate values.
+	 * @param values the values to copy, split using {@link Spliterator#trySplit()}
+	 * @param condition the conditions under which values are copied, skipped, or cause an error
+	 * @return a new list containing the values which met the {@code condition}
+	 */
+	public static final <T> List<T> copyParallel(Spliterator<? extends T> values, AddCondition condition) {
+		if(values == null) {
+			return new ArrayList<>();
+		}
+		return copyParallel(StreamSupport.stream(values, true).toArray(), condition);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static final <T> List<T> copyParallel(Object[] items, AddCondition condition) {
+		int size = items.length;
+		if(size < PARALLEL_THRESHOLD) {
+			List<T> list = new ArrayList<>(size);
+			addToList((T[])items, list, condition);
+			return list;
+		}
+
+		boolean addIfNull = condition.doAddIfNull();
+		boolean addIfContains = condition.doAddIfContains();
+		boolean[] keep = new boolean[size];
+
+		if(addIfContains) {
+			IntStream.range(0, size).parallel().forEach((i) -> keep[i] = addIfNull || items[i] != null);
+		}
+		else {
+			// record the index of the first occurrence of each value, the first occurrence wins
+			ConcurrentHashMap<Object, Integer> firstIndexes = new ConcurrentHashMap<>(size);
+			AtomicInteger firstNullIndex = new AtomicInteger(size);
+			IntStream.range(0, size).parallel().forEach((i) -> {
+				Object item = items[i];
+				if(item != null) {
+					firstIndexes.merge(item, i, (a, b) -> a < b ? a : b);
+				}
+				else if(addIfNull) {
+					firstNullIndex.accumulateAndGet(i, Math::min);
+				}
+			});
+			int nullIndex = firstNullIndex.get();
+			IntStream.range(0, size).parallel().forEach((i) -> {
+				Object item = items[i];
+				keep[i] = (item != null ? firstIndexes.get(item) == i : nullIndex == i);
+			});
+		}
+
+		// throw the same error as a sequential copy, for the first value in encounter order which is not allowed
+		if(condition.doErrorIfNull() || condition.doErrorIfContains()) {
+			OptionalInt error = IntStream.range(0, size).parallel().filter((i) -> !keep[i] && (items[i] == null && !addIfNull ? condition.doErrorIfNull() : condition.doErrorIfContains())).findFirst();
+			if(error.isPresent()) {
+				throw new IllegalStateException(items[error.getAsInt()] == null && !addIfNull ? "tried to add null item to list" : "tried to add existing item to list");
+			}
+		}
+
+		int count = (int)IntStream.range(0, size).parallel().filter((i) -> keep[i]).count();
+		List<T> list = new ArrayList<>(count);
+		for(int i = 0; i < size; i++) {
+			if(keep[i]) {
+				list.add((T)items[i]);
+			}
+		}
+		return list;
+	}
+
+
+	/** Create a copy of an array of int values with a given condition, null conditions are ignored since primitives cannot be null
+	 * @return a new list containing the values from {@code values} which met the {@code condition}
+	 * @see #addToList(int[], int, int, IntArrayList, AddCondition)
+	 */
+	public static final IntArrayList copyInts(int[] values, AddCondition condition) {
+		IntArrayList list = new IntArrayList(values != null ? values.length : 0);
+		if(values != null) {
+			addToList(values, 0, values.length, list, condition);
+		}
+		return list;
+	}
+
+
+	/** Create a copy of an array of long values with a given condition, null conditions are ignored since primitives cannot be null
+	 * @return a new list containing the values from {@code values} which met the {@code condition}
+	 * @see #addToList(long[], int, int, LongArrayList, AddCondition)
+	 */
+	public static final LongArrayList copyLongs(long[] values, AddCondition condition) {
+		LongArrayList list = new LongArrayList(values != null ? values.length : 0);
+		if(values != null) {
+			addToList(values, 0, values.length, list, condition);
+		}
+		return list;
+	}
+
+
 	/**
 	 * @param ary
 	 * @param dst
@@ -216,4 +365,291 @@ public final class ListAdd {
 		return result;
 	}
 
+
+	/** Add an array of values to a list and record the outcome of each item in an {@link AddStats} object
+	 * @see #addToList(Object[], int, int, List, AddCondition, AddStats)
+	 */
+	public static final <T> AddStats addToList(T[] ary, List<? super T> dst, AddCondition condition, AddStats stats) {
+		return addToList(ary, 0, ary != null ? ary.length : 0, dst, condition, stats);
+	}
+
+
+	/** Add a sub-array of values to a list and record the outcome of each item in an {@link AddStats} object.
+	 * The counts are recorded even if an error is thrown part way through adding the items.
+	 * @param ary the array of values to add to the specified list
+	 * @param off the offset into {@code ary} at which to start adding items to the {@code dst} list
+	 * @param len the number of items to add to {@code dst} from {@code ary}
+	 * @param dst the list to add the items to
+	 * @param condition the conditions under which items are added, skipped, or cause an error
+	 * @param stats the stats object to add this call's counts to, or null to create a new one
+	 * @return the {@code stats} object, or a new object if {@code stats} is null
+	 */
+	public static final <T> AddStats addToList(T[] ary, int off, int len, List<? super T> dst, AddCondition condition, AddStats stats) {
+		if(stats == null) {
+			stats = new AddStats();
+		}
+		if(ary == null) {
+			return stats;
+		}
+		long start = System.nanoTime();
+		int[] counts = new int[4];
+		try {
+			for(int i = off, size = off + len; i < size; i++) {
+				counts[addItem(ary[i], dst, condition)]++;
+			}
+		} finally {
+			record(stats, counts, start);
+		}
+		return stats;
+	}
+
+
+	/** Add an iterable group of values to a list and record the outcome of each item in an {@link AddStats} object.
+	 * The counts are recorded even if an error is thrown part way through adding the items.
+	 * @param collection the collection of items to add to the list
+	 * @param dst the list to add the items to
+	 * @param condition the conditions under which items are added, skipped, or cause an error
+	 * @param stats the stats object to add this call's counts to, or null to create a new one
+	 * @return the {@code stats} object, or a new object if {@code stats} is null
+	 */
+	public static final <T> AddStats addToList(Iterable<? extends T> collection, List<? super T> dst, AddCondition condition, AddStats stats) {
+		if(stats == null) {
+			stats = new AddStats();
+		}
+		if(collection == null) {
+			return stats;
+		}
+		long start = System.nanoTime();
+		int[] counts = new int[4];
+		try {
+			if(collection instanceof List && collection instanceof RandomAccess) {
+				List<? extends T> list = (List<? extends T>)collection;
+				for(int i = 0, size = list.size(); i < size; i++) {
+					counts[addItem(list.get(i), dst, condition)]++;
+				}
+			}
+			else {
+				for(T item : collection) {
+					counts[addItem(item, dst, condition)]++;
+				}
+			}
+		} finally {
+			record(stats, counts, start);
+		}
+		return stats;
+	}
+
+
+	/** Merge a sorted group of values into a sorted list in a single linear pass, the {@code dst} list remains sorted.<br>
+	 * Duplicates are identified by {@code comparator} returning 0 rather than by {@link List#contains(Object)}, since both lists are sorted,
+	 * an item is only compared to its neighbors. When an item compares equal to existing {@code dst} items, it is inserted after them.
+	 * The destination list is grown at most once. If an error is thrown, {@code dst} is not modified.<br>
+	 * Null values which are allowed by {@code condition} are passed to {@code comparator}, see {@link Comparator#nullsFirst(Comparator)}.
+	 * @param src the values to add, sorted according to {@code comparator}
+	 * @param dst the list to add the items to, sorted according to {@code comparator}
+	 * @param comparator the comparator which both {@code src} and {@code dst} are sorted by
+	 * @param condition the conditions under which items are added, skipped, or cause an error
+	 * @return true if all of the {@code src} values were added, false if any were skipped
+	 * @throws IllegalArgumentException if {@code src} is not sorted
+	 */
+	@SuppressWarnings("unchecked")
+	public static final <T> boolean addToList(Iterable<? extends T> src, List<T> dst, Comparator<? super T> comparator, AddCondition condition) {
+		if(src == null) {
+			return false;
+		}
+		boolean addIfContains = condition.doAddIfContains();
+		boolean errorIfContains = condition.doErrorIfContains();
+		boolean addIfNull = condition.doAddIfNull();
+		boolean errorIfNull = condition.doErrorIfNull();
+
+		Object[] items = src instanceof Collection ? ((Collection<? extends T>)src).toArray() : ListUtil.map(src, Function.identity()).toArray();
+		Object[] existing = dst.toArray();
+		int srcSize = items.length;
+		int dstSize = existing.length;
+		Object[] merged = new Object[dstSize + srcSize];
+		int n = 0;
+		int di = 0;
+		boolean result = true;
+		T prev = null;
+		boolean hasPrev = false;
+
+		for(int si = 0; si < srcSize; si++) {
+			T item = (T)items[si];
+			if(!addIfNull && item == null) {
+				if(errorIfNull) {
+					throw new IllegalStateException("tried to add null item to list");
+				}
+				result = false;
+				continue;
+			}
+			if(hasPrev && comparator.compare(prev, item) > 0) {
+				throw new IllegalArgumentException("source values are not sorted, index " + si + " is less than the previous value");
+			}
+			prev = item;
+			hasPrev = true;
+
+			// copy existing items less than or equal to the new item
+			while(di < dstSize && comparator.compare((T)existing[di], item) <= 0) {
+				merged[n++] = existing[di++];
+			}
+			if(!addIfContains && n > 0 && comparator.compare((T)merged[n - 1], item) == 0) {
+				if(errorIfContains) {
+					throw new IllegalStateException("tried to add existing item to list");
+				}
+				result = false;
+				continue;
+			}
+			merged[n++] = item;
+		}
+		while(di < dstSize) {
+			merged[n++] = existing[di++];
+		}
+
+		// overwrite the existing positions, then append the remainder in one operation
+		if(dst instanceof RandomAccess) {
+			for(int i = 0; i < dstSize; i++) {
+				dst.set(i, (T)merged[i]);
+			}
+		}
+		else {
+			ListIterator<T> iter = dst.listIterator();
+			for(int i = 0; i < dstSize; i++) {
+				iter.next();
+				iter.set((T)merged[i]);
+			}
+		}
+		if(n > dstSize) {
+			dst.addAll((List<T>)Arrays.asList(merged).subList(dstSize, n));
+		}
+		return result;
+	}
+
+
+	/**
+	 * @see #addToList(int[], int, int, IntArrayList, AddCondition)
+	 */
+	public static final boolean addToList(int[] ary, IntArrayList dst, AddCondition condition) {
+		return addToList(ary, 0, ary != null ? ary.length : 0, dst, condition);
+	}
+
+
+	/** Add a sub-array of int values to a int list without boxing.
+	 * Duplicate checks use an open-addressing hash set containing the destination's values, rather than a linear {@link IntArrayList#contains(int)} search.
+	 * The null conditions of {@code condition} are ignored since primitives cannot be null.
+	 * @param ary the array of values to add to the specified list
+	 * @param off the offset into {@code ary} at which to start adding items to the {@code dst} list
+	 * @param len the number of items to add to {@code dst} from {@code ary}
+	 * @param dst the list to add the items to
+	 * @param condition the conditions under which duplicate items are added, skipped, or cause an error
+	 * @return true if all of the values were added, false if any were skipped
+	 */
+	public static final boolean addToList(int[] ary, int off, int len, IntArrayList dst, AddCondition condition) {
+		if(ary == null) {
+			return false;
+		}
+		if(condition.doAddIfContains()) {
+			dst.addAll(ary, off, len);
+			return true;
+		}
+		boolean errorIfContains = condition.doErrorIfContains();
+		int dstSize = dst.size();
+		IntHashSet existing = new IntHashSet(dstSize + len);
+		for(int i = 0; i < dstSize; i++) {
+			existing.add(dst.get(i));
+		}
+		dst.ensureCapacity(dstSize + len);
+		boolean result = true;
+		for(int i = off, size = off + len; i < size; i++) {
+			int item = ary[i];
+			if(!existing.add(item)) {
+				if(errorIfContains) {
+					throw new IllegalStateException("tried to add existing item to list");
+				}
+				result = false;
+				continue;
+			}
+			dst.add(item);
+		}
+		return result;
+	}
+
+
+	/**
+	 * @see #addToList(long[], int, int, LongArrayList, AddCondition)
+	 */
+	public static final boolean addToList(long[] ary, LongArrayList dst, AddCondition condition) {
+		return addToList(ary, 0, ary != null ? ary.length : 0, dst, condition);
+	}
+
+
+	/** Add a sub-array of long values to a long list without boxing.
+	 * Duplicate checks use an open-addressing hash set containing the destination's values, rather than a linear {@link LongArrayList#contains(long)} search.
+	 * The null conditions of {@code condition} are ignored since primitives cannot be null.
+	 * @param ary the array of values to add to the specified list
+	 * @param off the offset into {@code ary} at which to start adding items to the {@code dst} list
+	 * @param len the number of items to add to {@code dst} from {@code ary}
+	 * @param dst the list to add the items to
+	 * @param condition the conditions under which duplicate items are added, skipped, or cause an error
+	 * @return true if all of the values were added, false if any were skipped
+	 */
+	public static final boolean addToList(long[] ary, int off, int len, LongArrayList dst, AddCondition condition) {
+		if(ary == null) {
+			return false;
+		}
+		if(condition.doAddIfContains()) {
+			dst.addAll(ary, off, len);
+			return true;
+		}
+		boolean errorIfContains = condition.doErrorIfContains();
+		int dstSize = dst.size();
+		LongHashSet existing = new LongHashSet(dstSize + len);
+		for(int i = 0; i < dstSize; i++) {
+			existing.add(dst.get(i));
+		}
+		dst.ensureCapacity(dstSize + len);
+		boolean result = true;
+		for(int i = off, size = off + len; i < size; i++) {
+			long item = ary[i];
+			if(!existing.add(item)) {
+				if(errorIfContains) {
+					throw new IllegalStateException("tried to add existing item to list");
+				}
+				result = false;
+				continue;
+			}
+			dst.add(item);
+		}
+		return result;
+	}
+
+
+	/** Add one item to a list
+	 * @return {@link #ADDED}, {@link #SKIPPED_NULL}, {@link #SKIPPED_DUPLICATE}, or {@link #NOT_ADDED} if {@code dst} rejected the item
+	 */
+	private static final <T> int addItem(T item, List<? super T> dst, AddCondition condition) {
+		if(item == null && !condition.doAddIfNull()) {
+			if(condition.doErrorIfNull()) {
+				throw new IllegalStateException("tried to add null item to list");
+			}
+			return SKIPPED_NULL;
+		}
+		if(!condition.doAddIfContains() && dst.contains(item)) {
+			if(condition.doErrorIfContains()) {
+				throw new IllegalStateException("tried to add existing item to list");
+			}
+			return SKIPPED_DUPLICATE;
+		}
+		return dst.add(item) ? ADDED : NOT_ADDED;
+	}
+
+
+	private static final void record(AddStats stats, int[] counts, long start) {
+		long nanos = System.nanoTime() - start;
+		stats.record(counts[ADDED], counts[SKIPPED_NULL], counts[SKIPPED_DUPLICATE], nanos);
+		AddStats.Listener listener = statsListener;
+		if(listener != null) {
+			listener.record(counts[ADDED], counts[SKIPPED_NULL], counts[SKIPPED_DUPLICATE], nanos);
+		}
+	}
+
 }
@@ -0,0 +1,195 @@
+package twg2.collections.builder;
+
+import java.util.Arrays;
+
+/** A growable array of {@code long} values, used as a destination for {@link ListAdd} operations on primitive arrays
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public final class LongArrayList {
+	private static final int DEFAULT_CAPACITY = 10;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long[] data;
+	private int size;
+
+
+	public LongArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * @param capacity the initial capacity of this list
+	 */
+	public LongArrayList(int capacity) {
+		if(capacity < 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.data = new long[capacity];
+	}
+
+
+	/**
+	 * @param values the initial values of the list, the array is copied
+	 * @return a new list containing the values
+	 */
+	public static LongArrayList of(long... values) {
+		LongArrayList list = new LongArrayList(values.length);
+		list.addAll(values, 0, values.length);
+		return list;
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public long get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		return data[index];
+	}
+
+
+	/**
+	 * @return the previous value at {@code index}
+	 */
+	public long set(int index, long value) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		long prev = data[index];
+		data[index] = value;
+		return prev;
+	}
+
+
+	public void add(long value) {
+		if(size == data.length) {
+			grow(size + 1);
+		}
+		data[size++] = value;
+	}
+
+
+	/** Append a sub-array of values to this list
+	 * @param values the array of values
+	 * @param off the offset into {@code values} at which to start copying
+	 * @param len the number of values to copy
+	 */
+	public void addAll(long[] values, int off, int len) {
+		ensureCapacity(size + len);
+		System.arraycopy(values, off, data, size, len);
+		size += len;
+	}
+
+
+	/**
+	 * @return true if this list contains the value, searches linearly
+	 */
+	public boolean contains(long value) {
+		return indexOf(value) > -1;
+	}
+
+
+	/**
+	 * @return the index of the first occurrence of the value in this list, or -1 if it does not exist
+	 */
+	public int indexOf(long value) {
+		long[] data = this.data;
+		for(int i = 0, size = this.size; i < size; i++) {
+			if(data[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/** Ensure that this list can hold at least {@code minCapacity} values without growing
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if(minCapacity > data.length) {
+			grow(minCapacity);
+		}
+	}
+
+
+	public void clear() {
+		size = 0;
+	}
+
+
+	/**
+	 * @return a copy of this list's values
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof LongArrayList)) {
+			return false;
+		}
+		LongArrayList other = (LongArrayList)obj;
+		if(size != other.size) {
+			return false;
+		}
+		for(int i = 0; i < size; i++) {
+			if(data[i] != other.data[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for(int i = 0; i < size; i++) {
+			hash = 31 * hash + (int)(data[i] ^ (data[i] >>> 32));
+		}
+		return hash;
+	}
+
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(size * 4 + 2);
+		sb.append('[');
+		for(int i = 0; i < size; i++) {
+			if(i > 0) {
+				sb.append(", ");
+			}
+			sb.append(data[i]);
+		}
+		return sb.append(']').toString();
+	}
+
+
+	private void grow(int minCapacity) {
+		if(minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+			throw new OutOfMemoryError("required list capacity too large: " + (minCapacity & 0xFFFFFFFFL));
+		}
+		int newCapacity = data.length + (data.length >> 1);
+		if(newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+			newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+		}
+		data = Arrays.copyOf(data, newCapacity);
+	}
+
+}
@@ -0,0 +1,97 @@
+package twg2.collections.builder;
+
+/** A minimal open-addressing (linear probing) set of {@code long} values, used to check for duplicates without boxing
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class LongHashSet {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	/** 0 marks an empty slot, the value 0 itself is tracked by {@link #hasZero} */
+	private long[] keys;
+	private boolean hasZero;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+
+	LongHashSet(int expectedSize) {
+		allocate(Hashing.tableSize(expectedSize, LOAD_FACTOR));
+	}
+
+
+	int size() {
+		return size;
+	}
+
+
+	boolean contains(long key) {
+		if(key == 0) {
+			return hasZero;
+		}
+		long[] keys = this.keys;
+		int mask = this.mask;
+		for(int i = Hashing.mix(key) & mask; ; i = (i + 1) & mask) {
+			long k = keys[i];
+			if(k == key) {
+				return true;
+			}
+			if(k == 0) {
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * @return true if the key was added, false if the set already contained it
+	 */
+	boolean add(long key) {
+		if(key == 0) {
+			if(hasZero) {
+				return false;
+			}
+			hasZero = true;
+			size++;
+			return true;
+		}
+		long[] keys = this.keys;
+		int mask = this.mask;
+		int i = Hashing.mix(key) & mask;
+		for(long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+			if(k == key) {
+				return false;
+			}
+		}
+		keys[i] = key;
+		if(++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return true;
+	}
+
+
+	private void rehash(int newTableSize) {
+		long[] oldKeys = this.keys;
+		allocate(newTableSize);
+		long[] keys = this.keys;
+		int mask = this.mask;
+		for(long k : oldKeys) {
+			if(k != 0) {
+				int i = Hashing.mix(k) & mask;
+				while(keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+			}
+		}
+	}
+
+
+	private void allocate(int tableSize) {
+		this.keys = new long[tableSize];
+		this.mask = tableSize - 1;
+		this.resizeAt = Math.min(tableSize - 1, (int)(tableSize * LOAD_FACTOR));
+	}
+
+}
@@ -0,0 +1,298 @@
+package twg2.collections.builder;
+
+import java.util.Arrays;
+
+/** An open-addressing (linear probing) hash map with {@code long} keys and {@code long} values.
+ * Keys and values are stored unboxed in flat arrays, no entry objects are created. Not thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public final class LongLongHashMap {
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** A key-value consumer
+	 */
+	@FunctionalInterface
+	public static interface EntryConsumer {
+		public void accept(long key, long value);
+	}
+
+
+	/** 0 marks an empty slot, the key 0 itself is tracked by {@link #hasZeroKey} */
+	private long[] keys;
+	private long[] values;
+	private boolean hasZeroKey;
+	private long zeroValue;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+
+	public LongLongHashMap() {
+		this(16);
+	}
+
+
+	/**
+	 * @param expectedSize the number of entries this map can hold without resizing
+	 */
+	public LongLongHashMap(int expectedSize) {
+		allocate(Hashing.tableSize(expectedSize, LOAD_FACTOR));
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public boolean containsKey(long key) {
+		return key == 0 ? hasZeroKey : slot(key) > -1;
+	}
+
+
+	/**
+	 * @return the value associated with the key, or 0 if the key does not exist in this map
+	 */
+	public long get(long key) {
+		return getOrDefault(key, 0);
+	}
+
+
+	/**
+	 * @return the value associated with the key, or {@code defaultValue} if the key does not exist in this map
+	 */
+	public long getOrDefault(long key, long defaultValue) {
+		if(key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		int i = slot(key);
+		return i > -1 ? values[i] : defaultValue;
+	}
+
+
+	/**
+	 * @return the previous value associated with the key, or 0 if the key did not exist in this map
+	 */
+	public long put(long key, long value) {
+		if(key == 0) {
+			long prev = zeroValue;
+			if(!hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			zeroValue = value;
+			return prev;
+		}
+		long[] keys = this.keys;
+		int mask = this.mask;
+		int i = Hashing.mix(key) & mask;
+		for(long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+			if(k == key) {
+				long prev = values[i];
+				values[i] = value;
+				return prev;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if(++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return 0;
+	}
+
+
+	/** Add an amount to the value associated with a key, a key which does not exist in this map is added with a value of {@code delta}
+	 * @return the new value associated with the key
+	 */
+	public long addTo(long key, long delta) {
+		if(key == 0) {
+			if(!hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			return zeroValue += delta;
+		}
+		long[] keys = this.keys;
+		int mask = this.mask;
+		int i = Hashing.mix(key) & mask;
+		for(long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+			if(k == key) {
+				return values[i] += delta;
+			}
+		}
+		keys[i] = key;
+		values[i] = delta;
+		if(++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return delta;
+	}
+
+
+	/**
+	 * @return the value which was associated with the key, or 0 if the key did not exist in this map
+	 */
+	public long remove(long key) {
+		if(key == 0) {
+			long prev = zeroValue;
+			if(hasZeroKey) {
+				hasZeroKey = false;
+				zeroValue = 0;
+				size--;
+			}
+			return prev;
+		}
+		int i = slot(key);
+		if(i < 0) {
+			return 0;
+		}
+		long prev = values[i];
+		size--;
+		// shift following entries back into the gap so that probe sequences remain unbroken
+		long[] keys = this.keys;
+		long[] values = this.values;
+		int mask = this.mask;
+		for(int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+			int home = Hashing.mix(keys[j]) & mask;
+			if(((j - home) & mask) >= ((j - i) & mask)) {
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		keys[i] = 0;
+		values[i] = 0;
+		return prev;
+	}
+
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0);
+		hasZeroKey = false;
+		zeroValue = 0;
+		size = 0;
+	}
+
+
+	/** Call {@code consumer} with each key-value in this map, in no particular order
+	 */
+	public void forEach(EntryConsumer consumer) {
+		if(hasZeroKey) {
+			consumer.accept(0, zeroValue);
+		}
+		long[] keys = this.keys;
+		long[] values = this.values;
+		for(int i = 0, n = keys.length; i < n; i++) {
+			if(keys[i] != 0) {
+				consumer.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+
+	/**
+	 * @return a new array containing this map's keys, in the same order as {@link #values()}
+	 */
+	public long[] keys() {
+		long[] res = new long[size];
+		int n = 0;
+		if(hasZeroKey) {
+			res[n++] = 0;
+		}
+		for(long k : keys) {
+			if(k != 0) {
+				res[n++] = k;
+			}
+		}
+		return res;
+	}
+
+
+	/**
+	 * @return a new array containing this map's values, in the same order as {@link #keys()}
+	 */
+	public long[] values() {
+		long[] res = new long[size];
+		int n = 0;
+		if(hasZeroKey) {
+			res[n++] = zeroValue;
+		}
+		long[] keys = this.keys;
+		for(int i = 0, len = keys.length; i < len; i++) {
+			if(keys[i] != 0) {
+				res[n++] = values[i];
+			}
+		}
+		return res;
+	}
+
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(size * 8 + 2);
+		sb.append('{');
+		forEach((k, v) -> {
+			if(sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(k).append('=').append(v);
+		});
+		return sb.append('}').toString();
+	}
+
+
+	/**
+	 * @return the table index of a non-zero key, or -1 if it does not exist
+	 */
+	private int slot(long key) {
+		long[] keys = this.keys;
+		int mask = this.mask;
+		for(int i = Hashing.mix(key) & mask; ; i = (i + 1) & mask) {
+			long k = keys[i];
+			if(k == key) {
+				return i;
+			}
+			if(k == 0) {
+				return -1;
+			}
+		}
+	}
+
+
+	private void rehash(int newTableSize) {
+		long[] oldKeys = this.keys;
+		long[] oldValues = this.values;
+		allocate(newTableSize);
+		long[] keys = this.keys;
+		long[] values = this.values;
+		int mask = this.mask;
+		for(int j = 0, n = oldKeys.length; j < n; j++) {
+			long k = oldKeys[j];
+			if(k != 0) {
+				int i = Hashing.mix(k) & mask;
+				while(keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+
+	private void allocate(int tableSize) {
+		this.keys = new long[tableSize];
+		this.values = new long[tableSize];
+		this.mask = tableSize - 1;
+		this.resizeAt = Math.min(tableSize - 1, (int)(tableSize * LOAD_FACTOR));
+	}
+
+}
@@ -1,13 +1,21 @@
 package twg2.collections.builder;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /** A utility class for building {@link Map Maps}
@@ -44,31 +52,72 @@ public final class MapBuilder {
 	}
 
 
-	/** Creates an immutable map containing the list of entries
+	/** Creates an immutable map containing the list of entries.
+	 * The map stores its keys and values in a flat array, searched linearly for small maps and by open-addressing hash lookup for larger maps.
+	 * Maps of 9 to 64 {@code String} or boxed integer keys of one type store their keys in sorted order and are searched by binary search.
+	 * Null keys and values are allowed, the last value of a duplicate key is kept
 	 * @param entries the list entries to include in the map
 	 * @return a new, immutable, map containing the list of input entries
 	 */
 	@SafeVarargs
 	public static final <K, V> Map<K, V> immutable(Map.Entry<K, V>... entries) {
-		return Collections.unmodifiableMap(mutable(entries));
+		return ImmutableArrayMap.copyOf(entries);
 	}
 
 
 	/** Creates an immutable map containing the entries from the iterator data set provided
 	 * @param iterable an entry iterator containing the values to include in the map
 	 * @return a new, immutable, map containing the input iterable's entries
+	 * @see #immutable(java.util.Map.Entry...)
 	 */
 	public static final <K, V> Map<K, V> immutable(Iterable<? extends Map.Entry<K, V>> iterable) {
-		return Collections.unmodifiableMap(mutable(iterable.iterator()));
+		return ImmutableArrayMap.copyOf(iterable.iterator());
 	}
 
 
 	/** Creates an immutable map containing the remaining entries from the iterator provided
 	 * @param entryIter an entry iterator containing the values to include in the map
 	 * @return a new, immutable, map containing the input iterator's entries
+	 * @see #immutable(java.util.Map.Entry...)
 	 */
 	public static final <K, V> Map<K, V> immutable(Iterator<? extends Map.Entry<K, V>> entryIter) {
-		return Collections.unmodifiableMap(mutable(entryIter));
+		return ImmutableArrayMap.copyOf(entryIter);
+	}
+
+
+	/** Creates an immutable {@link SortedMap} which stores its keys and values in two parallel arrays sorted by key and searched by binary search.
+	 * Intended for small, frequently read maps, the map has no per-entry objects and its sub, head, and tail maps are views sharing the same arrays.
+	 * Note that {@link #immutable(Iterable)} also returns this type of map for small maps with all {@code String} or all the same boxed integer type keys
+	 * @param entries the entries to include in the map, the last value of a duplicate key is kept
+	 * @return a new, immutable, sorted map containing the input entries
+	 * @throws NullPointerException if a key is null
+	 */
+	public static final <K extends Comparable<? super K>, V> SortedMap<K, V> immutableSorted(Iterable<? extends Map.Entry<K, V>> entries) {
+		Object[] kvs = toKeyValueArray(entries.iterator());
+		return SortedArrayMap.create(null, kvs, kvs.length / 2);
+	}
+
+
+	/** Creates an immutable {@link SortedMap} ordered by a comparator
+	 * @param comparator the key comparator, keys which it considers equal are duplicates
+	 * @see #immutableSorted(Iterable)
+	 */
+	public static final <K, V> SortedMap<K, V> immutableSorted(Comparator<? super K> comparator, Iterable<? extends Map.Entry<K, V>> entries) {
+		Object[] kvs = toKeyValueArray(entries.iterator());
+		return SortedArrayMap.create(comparator, kvs, kvs.length / 2);
+	}
+
+
+	/** Creates an immutable map with enum keys which stores its values in an array indexed by key ordinal.
+	 * Note that {@link #immutable(Iterable)} also returns this type of map when all of the keys are constants of the same enum
+	 * @param enumClass the enum class of the keys
+	 * @param entries the entries to include in the map, the last value of a duplicate key is kept
+	 * @return a new, immutable, map containing the input entries
+	 * @throws NullPointerException if a key is null
+	 */
+	public static final <K extends Enum<K>, V> Map<K, V> immutable(Class<K> enumClass, Iterable<? extends Map.Entry<K, V>> entries) {
+		Object[] kvs = toKeyValueArray(entries.iterator());
+		return ImmutableEnumMap.create(enumClass, kvs, kvs.length / 2);
 	}
 
 
@@ -116,7 +165,30 @@ public final class MapBuilder {
 			throw new IllegalArgumentException("cannot combine collections with different lengths, collection 1 has " + size1 + " elements, collection 2 has " + size2);
 		}
 
-		return mutable(col1.iterator(), col2.iterator(), errorIfDuplicateKey, new HashMap<>());
+		return mutable(col1.iterator(), col2.iterator(), errorIfDuplicateKey, new HashMap<>(Hashing.hashMapCapacity(size1)));
+	}
+
+
+	/** Creates a {@link ConcurrentHashMap} from a list of keys and a list of values, hashing and partitioning the keys in parallel on fork-join tasks.
+	 * Each partition's entries are added directly to the presized result by one task, there is no single threaded merge.
+	 * The result contains the same entries as {@link #mutable(Collection, Collection, boolean)}, and the same duplicate key is reported,
+	 * small lists are combined on the current thread
+	 * @param keys the map keys, lists which are not {@link RandomAccess} are copied before being partitioned
+	 * @param values the map values, {@code values.get(i)} is associated with {@code keys.get(i)}
+	 * @param errorIfDuplicateKey true to throw an exception if a duplicate key is encountered, false to keep the last value of duplicate keys
+	 * @return a new, mutable, concurrent map containing the keys and values
+	 * @throws IllegalArgumentException if the lists have different lengths or if {@code errorIfDuplicateKey} is true and a duplicate key is encountered,
+	 * the reported key is the first key in list order which duplicates an earlier key
+	 * @throws NullPointerException if a key or value is null
+	 */
+	public static final <K, V> ConcurrentHashMap<K, V> mutableParallel(List<? extends K> keys, List<? extends V> values, boolean errorIfDuplicateKey) {
+		int size1 = keys.size();
+		int size2 = values.size();
+		if(size1 != size2) {
+			throw new IllegalArgumentException("cannot combine collections with different lengths, collection 1 has " + size1 + " elements, collection 2 has " + size2);
+		}
+
+		return MapZip.zipParallel(keys instanceof RandomAccess ? keys : new ArrayList<>(keys), values instanceof RandomAccess ? values : new ArrayList<>(values), errorIfDuplicateKey);
 	}
 
 
@@ -155,14 +227,56 @@ public final class MapBuilder {
 	}
 
 
+	/** Creates a mutable {@link EnumMap} containing the iterable set of entries
+	 * @param enumClass the enum class of the keys
+	 * @param entries the iterable entries to include in the map
+	 * @return a new, mutable, enum map containing the iterable set of input entries
+	 */
+	public static final <K extends Enum<K>, V> EnumMap<K, V> mutable(Class<K> enumClass, Iterable<? extends Map.Entry<K, V>> entries) {
+		EnumMap<K, V> entryMap = new EnumMap<>(enumClass);
+		for(Map.Entry<K, V> entry : entries) {
+			entryMap.put(entry.getKey(), entry.getValue());
+		}
+		return entryMap;
+	}
+
+
 	// ==== Enums to map ====
 
-	/** Creates an immutable mapping of enum constant names to enum constants
+	/** Returns the shared immutable mapping of enum constant names to enum constants.
+	 * The table is built the first time it is requested for an enum class and cached per class (using a {@link ClassValue}),
+	 * later calls return the same map without rebuilding it.
+	 * The map is built using a minimal perfect hash, so a lookup costs one hash code, two array loads, and one {@code equals()} call
 	 * @param enumClass an {@link Enum} class
 	 * @return a map of the enum constant names to enums constants from the specified enum
 	 */
+	public static final <E extends Enum<E>> Map<String, E> sharedEnumNames(Class<E> enumClass) {
+		return EnumTables.names(enumClass);
+	}
+
+
+	/** Returns a shared immutable mapping of a mapped value for each enum to the enum's constants.
+	 * The table is cached per enum class under {@code mappingName}, {@code enumToKey} is only called
+	 * the first time {@code mappingName} is requested for {@code enumClass}, so each mapping name must always identify the same mapping
+	 * @param enumClass an {@link Enum} class
+	 * @param mappingName the name to cache the table under
+	 * @param enumToKey function that converts an enum value to another value which is stored as the key for the enum value in the returned map
+	 * @return a map of the mapped keys to enums constants from the specified enum
+	 * @see #immutableEnumNames(Class, Function)
+	 */
+	public static final <E extends Enum<E>, R> Map<R, E> sharedEnumNames(Class<E> enumClass, String mappingName, Function<E, R> enumToKey) {
+		return EnumTables.mapped(enumClass, mappingName, enumToKey);
+	}
+
+
+	/** Creates an immutable mapping of enum constant names to enum constants.
+	 * The map is built using a minimal perfect hash, so a lookup costs one hash code, two array loads, and one {@code equals()} call
+	 * @param enumClass an {@link Enum} class
+	 * @return the shared map of the enum constant names to enums constants from the specified enum
+	 * @see #sharedEnumNames(Class)
+	 */
 	public static final <E extends Enum<E>> Map<String, E> immutableEnumNames(Class<E> enumClass) {
-		return Collections.unmodifiableMap(mutableEnumNames(enumClass));
+		return EnumTables.names(enumClass);
 	}
 
 
@@ -171,19 +285,23 @@ public final class MapBuilder {
 	 * @return a map of the enum constant names to enums constants from the specified enum
 	 */
 	public static final <E extends Enum<E>> Map<String, E> mutableEnumNames(Class<E> enumClass) {
-		E[] enums = enumClass.getEnumConstants();
-		Map<String, E> entryMap = new HashMap<>();
-		for(E enumI : enums) {
-			entryMap.put(enumI.name(), enumI);
-		}
-		return entryMap;
+		return new HashMap<>(EnumTables.names(enumClass));
 	}
 
 
-	/** @see #mutableEnumNames(Class, Function)
+	/** Creates an immutable mapping of a mapped value for each enum to the enum's constants, built using a minimal perfect hash.
+	 * If {@code enumToKey} returns duplicate keys, the last enum constant is kept
+	 * @see #mutableEnumNames(Class, Function)
+	 * @see #sharedEnumNames(Class, String, Function)
 	 */
 	public static final <E extends Enum<E>, R> Map<R, E> immutableEnumNames(Class<E> enumClass, Function<E, R> enumToKey) {
-		return Collections.unmodifiableMap(mutableEnumNames(enumClass, enumToKey));
+		E[] enums = EnumTables.constants(enumClass);
+		Object[] kvs = new Object[enums.length * 2];
+		for(int i = 0; i < enums.length; i++) {
+			kvs[i * 2] = enumToKey.apply(enums[i]);
+			kvs[i * 2 + 1] = enums[i];
+		}
+		return PerfectHashMap.create(kvs, enums.length);
 	}
 
 
@@ -193,8 +311,8 @@ public final class MapBuilder {
 	 * @return a map of the enum constant names to enums constants from the specified enum
 	 */
 	public static final <E extends Enum<E>, R> Map<R, E> mutableEnumNames(Class<E> enumClass, Function<E, R> enumToKey) {
-		E[] enums = enumClass.getEnumConstants();
-		Map<R, E> entryMap = new HashMap<>();
+		E[] enums = EnumTables.constants(enumClass);
+		Map<R, E> entryMap = new HashMap<>(Hashing.hashMapCapacity(enums.length));
 		for(E enumI : enums) {
 			entryMap.put(enumToKey.apply(enumI), enumI);
 		}
@@ -206,12 +324,17 @@ public final class MapBuilder {
 	 * Duplicate keys are overwritten. Keys from the last map of {@code maps} taking
 	 * precedence over keys from the second to last map and keys from the second to last
 	 * map taking precedence over keys from the third to last map, etc.
+	 * The result is presized to hold the sum of the sizes of the {@code maps}.
 	 * @param maps the list of maps to combine
 	 * @return a single map containing all of the non-duplicate key-value pairs from all of the {@code maps}
 	 */
 	@SafeVarargs
 	public static final <K, V> Map<K, V> concat(Map<? extends K, ? extends V>... maps) {
-		Map<K, V> combinedMap = new HashMap<K, V>();
+		long totalSize = 0;
+		for(Map<? extends K, ? extends V> map : maps) {
+			totalSize += map.size();
+		}
+		Map<K, V> combinedMap = new HashMap<K, V>(Hashing.hashMapCapacity((int)Math.min(totalSize, Hashing.MAX_TABLE_SIZE)));
 		for(Map<? extends K, ? extends V> map : maps) {
 			combinedMap.putAll(map);
 		}
@@ -223,11 +346,107 @@ public final class MapBuilder {
 	 * Duplicate keys are overwritten. Keys from the last map of {@code maps} taking
 	 * precedence over keys from the second to last map and keys from the second to last
 	 * map taking precedence over keys from the third to last map, etc.
+	 * If {@code maps} is a {@link Collection}, the result is presized to hold the sum of the sizes of the {@code maps}.
 	 * @param maps the list of maps to combine
 	 * @return a single map containing all of the non-duplicate key-value pairs from all of the {@code maps}
 	 */
 	public static final <K, V> Map<K, V> concat(Iterable<? extends Map<? extends K, ? extends V>> maps) {
-		Map<K, V> combinedMap = new HashMap<K, V>();
+		Map<K, V> combinedMap;
+		if(maps instanceof Collection) {
+			long totalSize = 0;
+			for(Map<? extends K, ? extends V> map : maps) {
+				totalSize += map.size();
+			}
+			combinedMap = new HashMap<K, V>(Hashing.hashMapCapacity((int)Math.min(totalSize, Hashing.MAX_TABLE_SIZE)));
+		}
+		else {
+			combinedMap = new HashMap<K, V>();
+		}
+		for(Map<? extends K, ? extends V> map : maps) {
+			combinedMap.putAll(map);
+		}
+		return combinedMap;
+	}
+
+
+	/** Combine a list of maps into one concurrent map using the common {@link java.util.concurrent.ForkJoinPool}, with the same precedence as {@link #concat(Iterable)}:
+	 * keys from later maps overwrite keys from earlier maps.<br>
+	 * Each map's entries are split into key hash partitions in parallel, then each partition is merged by a single task
+	 * which visits the maps in order. The result is presized to the sum of the sizes of the {@code maps}.
+	 * Small inputs are combined on the current thread.
+	 * @param maps the list of maps to combine, which must not be modified during this call
+	 * @return a single map containing all of the non-duplicate key-value pairs from all of the {@code maps}
+	 * @throws NullPointerException if any map contains a null key or value
+	 */
+	public static final <K, V> ConcurrentHashMap<K, V> concatParallel(List<? extends Map<? extends K, ? extends V>> maps) {
+		return MapConcat.concatParallel(maps);
+	}
+
+
+	/** Combine a list of sorted maps into one sorted map, with the same precedence as {@link #concat(Iterable)}:
+	 * keys from later maps overwrite keys from earlier maps.<br>
+	 * The maps' entries are k-way merged in key order without hashing, then the result {@link TreeMap} is built from the merged entries in linear time.
+	 * @param maps the list of sorted maps to combine, which must all use the same comparator (or all use natural ordering)
+	 * @return a single sorted map, using the {@code maps}' comparator, containing all of the non-duplicate key-value pairs from all of the {@code maps}
+	 * @throws IllegalArgumentException if the maps have different comparators
+	 */
+	public static final <K, V> TreeMap<K, V> concatSorted(List<? extends SortedMap<K, ? extends V>> maps) {
+		return MapConcat.concatSorted(maps);
+	}
+
+
+	/** Create a persistent immutable map containing a source map's entries.
+	 * Updates to the returned map using {@link PersistentHashMap#with(Object, Object)}, {@link PersistentHashMap#without(Object)},
+	 * or {@link #concatPersistent(PersistentHashMap, Map...)} share structure with the previous version instead of copying it
+	 * @param source the source map
+	 * @return a new persistent map containing the source map's entries
+	 */
+	public static final <K, V> PersistentHashMap<K, V> persistent(Map<? extends K, ? extends V> source) {
+		return PersistentHashMap.<K, V>empty().withAll(source);
+	}
+
+
+	/** Combine a persistent map with a list of maps according to the {@link Map#putAll(Map)} contract, keys from later maps overwrite keys from earlier maps.
+	 * The result shares structure with {@code base}, so the cost is proportional to the number of override entries rather than the size of {@code base}
+	 * @param base the base map, which is not modified
+	 * @param overrides the maps whose entries are added to the base map
+	 * @return a persistent map containing {@code base}'s entries overwritten by the {@code overrides}' entries
+	 * @see #concat(Map...)
+	 */
+	@SafeVarargs
+	public static final <K, V> PersistentHashMap<K, V> concatPersistent(PersistentHashMap<K, V> base, Map<? extends K, ? extends V>... overrides) {
+		PersistentHashMap<K, V> res = base;
+		for(Map<? extends K, ? extends V> map : overrides) {
+			res = res.withAll(map);
+		}
+		return res;
+	}
+
+
+	/** Combine a list of maps with enum keys into one {@link EnumMap} according to the {@link Map#putAll(Map)} contract.
+	 * @param enumClass the enum class of the keys
+	 * @param maps the list of maps to combine
+	 * @return a single enum map containing all of the non-duplicate key-value pairs from all of the {@code maps}
+	 * @see #concat(Map...)
+	 */
+	@SafeVarargs
+	public static final <K extends Enum<K>, V> EnumMap<K, V> concat(Class<K> enumClass, Map<? extends K, ? extends V>... maps) {
+		EnumMap<K, V> combinedMap = new EnumMap<>(enumClass);
+		for(Map<? extends K, ? extends V> map : maps) {
+			combinedMap.putAll(map);
+		}
+		return combinedMap;
+	}
+
+
+	/** Combine a list of maps with enum keys into one {@link EnumMap} according to the {@link Map#putAll(Map)} contract.
+	 * @param enumClass the enum class of the keys
+	 * @param maps the list of maps to combine
+	 * @return a single enum map containing all of the non-duplicate key-value pairs from all of the {@code maps}
+	 * @see #concat(Iterable)
+	 */
+	public static final <K extends Enum<K>, V> EnumMap<K, V> concat(Class<K> enumClass, Iterable<? extends Map<? extends K, ? extends V>> maps) {
+		EnumMap<K, V> combinedMap = new EnumMap<>(enumClass);
 		for(Map<? extends K, ? extends V> map : maps) {
 			combinedMap.putAll(map);
 		}
@@ -238,13 +457,27 @@ public final class MapBuilder {
 	/** Create a new inverted map by swapping the keys with the values of the given source map
 	 * @param source the source map
 	 * @return the inverted map
+	 * @see #biMap(Map)
 	 */
 	public static final <K, V> Map<V, K> invert(Map<K, V> source) {
-		Map<V, K> dst = new HashMap<>();
+		Map<V, K> dst = new HashMap<>(Hashing.hashMapCapacity(source.size()));
 		return invert(source, dst);
 	}
 
 
+	/** Create a new inverted {@link EnumMap} by swapping the keys with the enum values of the given source map
+	 * @param enumClass the enum class of the source map's values
+	 * @param source the source map
+	 * @return the inverted map
+	 * @see #invert(Map)
+	 */
+	public static final <K, V extends Enum<V>> EnumMap<V, K> invert(Class<V> enumClass, Map<K, V> source) {
+		EnumMap<V, K> dst = new EnumMap<>(enumClass);
+		invert(source, dst);
+		return dst;
+	}
+
+
 	/** Copy and swap key-values from a source map to a destination map.
 	 * If the a duplicate destination map key is encountered, the operation is aborted when that duplicate is reached via {@code source.iterator()} traversal order. 
 	 * @param source the source map
@@ -262,19 +495,302 @@ public final class MapBuilder {
 
 	/** Try to copy and swap key-values from a source map to a destination map.
 	 * Key-values are copy-swapped from source to dst in {@code source.iterator()} traversal order.
-	 * When a source value is encountered that already exists in the destination, false is returned. All key-values moved up to that point remain in the destination map.
+	 * When a source value is encountered that already exists in the destination, false is returned and the key-values moved up to that point are removed from the destination map,
+	 * leaving it unmodified.
 	 * @param source the source map
 	 * @param dst the destination map
 	 * @return true if all key-values were swapped into the destination, false if a duplicate was encountered.
 	 */
 	public static final <K, V> boolean tryInvert(Map<K, V> source, Map<V, K> dst) {
+		int added = 0;
 		for(Entry<? extends K, ? extends V> entry : source.entrySet()) {
 			if(dst.containsKey(entry.getValue())) {
+				// roll back the key-values added so far, they are the first 'added' values in iteration order
+				Iterator<? extends V> addedValues = source.values().iterator();
+				for(int i = 0; i < added; i++) {
+					dst.remove(addedValues.next());
+				}
 				return false;
 			}
 			dst.put(entry.getValue(), entry.getKey());
+			added++;
 		}
 		return true;
 	}
 
+
+	/** Create a mutable bidirectional map containing the source map's entries.
+	 * Unlike {@link #invert(Map)}, the map's {@link BiMap#inverse()} is a view which stays in sync with the map
+	 * @param source the source map
+	 * @return a new {@link HashBiMap} containing the source map's entries
+	 * @throws IllegalArgumentException if the source map's values are not unique
+	 */
+	public static final <K, V> BiMap<K, V> biMap(Map<? extends K, ? extends V> source) {
+		return new HashBiMap<>(source);
+	}
+
+
+	/** Create an immutable bidirectional map containing the source map's entries, stored in compact immutable forward and backward maps
+	 * @param source the source map
+	 * @return a new, immutable, {@link BiMap} containing the source map's entries
+	 * @throws IllegalArgumentException if the source map's values are not unique
+	 */
+	public static final <K, V> BiMap<K, V> immutableBiMap(Map<? extends K, ? extends V> source) {
+		return ImmutableBiMap.copyOf(source);
+	}
+
+
+	// ==== Primitive keyed maps ====
+
+	/** Creates a {@link IntObjectHashMap} from parallel arrays of keys and values
+	 * @param keys the map keys
+	 * @param values the map values, {@code values[i]} is associated with {@code keys[i]}
+	 * @param errorIfDuplicateKey true to throw an exception if a duplicate key is encountered, false to keep the last value of duplicate keys
+	 * @return a new map containing the keys and values
+	 * @throws IllegalArgumentException if the arrays have different lengths or if {@code errorIfDuplicateKey} is true and a duplicate key is encountered
+	 */
+	public static final <V> IntObjectHashMap<V> intObjectMap(int[] keys, V[] values, boolean errorIfDuplicateKey) {
+		checkSameSize("arrays", keys.length, values.length);
+		IntObjectHashMap<V> dst = new IntObjectHashMap<>(keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			if(errorIfDuplicateKey && dst.containsKey(keys[i])) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + keys[i]);
+			}
+			dst.put(keys[i], values[i]);
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link IntObjectHashMap} from collections of keys and values
+	 * @see #intObjectMap(int[], Object[], boolean)
+	 */
+	public static final <V> IntObjectHashMap<V> intObjectMap(Collection<Integer> keys, Collection<? extends V> values, boolean errorIfDuplicateKey) {
+		checkSameSize("collections", keys.size(), values.size());
+		IntObjectHashMap<V> dst = new IntObjectHashMap<>(keys.size());
+		Iterator<? extends V> valueIter = values.iterator();
+		for(Integer key : keys) {
+			if(errorIfDuplicateKey && dst.containsKey(key)) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + key);
+			}
+			dst.put(key, valueIter.next());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link IntObjectHashMap} containing the remaining entries from the iterator provided, the last value of duplicate keys is kept
+	 * @param entryIter an entry iterator containing the keys and values to include in the map
+	 * @return a new map containing the iterator's entries
+	 */
+	public static final <V> IntObjectHashMap<V> intObjectMap(Iterator<? extends Map.Entry<Integer, ? extends V>> entryIter) {
+		IntObjectHashMap<V> dst = new IntObjectHashMap<>();
+		while(entryIter.hasNext()) {
+			Map.Entry<Integer, ? extends V> entry = entryIter.next();
+			dst.put(entry.getKey(), entry.getValue());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongObjectHashMap} from parallel arrays of keys and values
+	 * @param keys the map keys
+	 * @param values the map values, {@code values[i]} is associated with {@code keys[i]}
+	 * @param errorIfDuplicateKey true to throw an exception if a duplicate key is encountered, false to keep the last value of duplicate keys
+	 * @return a new map containing the keys and values
+	 * @throws IllegalArgumentException if the arrays have different lengths or if {@code errorIfDuplicateKey} is true and a duplicate key is encountered
+	 */
+	public static final <V> LongObjectHashMap<V> longObjectMap(long[] keys, V[] values, boolean errorIfDuplicateKey) {
+		checkSameSize("arrays", keys.length, values.length);
+		LongObjectHashMap<V> dst = new LongObjectHashMap<>(keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			if(errorIfDuplicateKey && dst.containsKey(keys[i])) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + keys[i]);
+			}
+			dst.put(keys[i], values[i]);
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongObjectHashMap} from collections of keys and values
+	 * @see #longObjectMap(long[], Object[], boolean)
+	 */
+	public static final <V> LongObjectHashMap<V> longObjectMap(Collection<Long> keys, Collection<? extends V> values, boolean errorIfDuplicateKey) {
+		checkSameSize("collections", keys.size(), values.size());
+		LongObjectHashMap<V> dst = new LongObjectHashMap<>(keys.size());
+		Iterator<? extends V> valueIter = values.iterator();
+		for(Long key : keys) {
+			if(errorIfDuplicateKey && dst.containsKey(key)) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + key);
+			}
+			dst.put(key, valueIter.next());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongObjectHashMap} containing the remaining entries from the iterator provided, the last value of duplicate keys is kept
+	 * @param entryIter an entry iterator containing the keys and values to include in the map
+	 * @return a new map containing the iterator's entries
+	 */
+	public static final <V> LongObjectHashMap<V> longObjectMap(Iterator<? extends Map.Entry<Long, ? extends V>> entryIter) {
+		LongObjectHashMap<V> dst = new LongObjectHashMap<>();
+		while(entryIter.hasNext()) {
+			Map.Entry<Long, ? extends V> entry = entryIter.next();
+			dst.put(entry.getKey(), entry.getValue());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link IntIntHashMap} from parallel arrays of keys and values
+	 * @param keys the map keys
+	 * @param values the map values, {@code values[i]} is associated with {@code keys[i]}
+	 * @param errorIfDuplicateKey true to throw an exception if a duplicate key is encountered, false to keep the last value of duplicate keys
+	 * @return a new map containing the keys and values
+	 * @throws IllegalArgumentException if the arrays have different lengths or if {@code errorIfDuplicateKey} is true and a duplicate key is encountered
+	 */
+	public static final IntIntHashMap intIntMap(int[] keys, int[] values, boolean errorIfDuplicateKey) {
+		checkSameSize("arrays", keys.length, values.length);
+		IntIntHashMap dst = new IntIntHashMap(keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			if(errorIfDuplicateKey && dst.containsKey(keys[i])) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + keys[i]);
+			}
+			dst.put(keys[i], values[i]);
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link IntIntHashMap} from collections of keys and values
+	 * @see #intIntMap(int[], int[], boolean)
+	 */
+	public static final IntIntHashMap intIntMap(Collection<Integer> keys, Collection<Integer> values, boolean errorIfDuplicateKey) {
+		checkSameSize("collections", keys.size(), values.size());
+		IntIntHashMap dst = new IntIntHashMap(keys.size());
+		Iterator<Integer> valueIter = values.iterator();
+		for(Integer key : keys) {
+			if(errorIfDuplicateKey && dst.containsKey(key)) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + key);
+			}
+			dst.put(key, valueIter.next());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link IntIntHashMap} containing the remaining entries from the iterator provided, the last value of duplicate keys is kept
+	 * @param entryIter an entry iterator containing the keys and values to include in the map
+	 * @return a new map containing the iterator's entries
+	 */
+	public static final IntIntHashMap intIntMap(Iterator<? extends Map.Entry<Integer, Integer>> entryIter) {
+		IntIntHashMap dst = new IntIntHashMap();
+		while(entryIter.hasNext()) {
+			Map.Entry<Integer, Integer> entry = entryIter.next();
+			dst.put(entry.getKey(), entry.getValue());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongLongHashMap} from parallel arrays of keys and values
+	 * @param keys the map keys
+	 * @param values the map values, {@code values[i]} is associated with {@code keys[i]}
+	 * @param errorIfDuplicateKey true to throw an exception if a duplicate key is encountered, false to keep the last value of duplicate keys
+	 * @return a new map containing the keys and values
+	 * @throws IllegalArgumentException if the arrays have different lengths or if {@code errorIfDuplicateKey} is true and a duplicate key is encountered
+	 */
+	public static final LongLongHashMap longLongMap(long[] keys, long[] values, boolean errorIfDuplicateKey) {
+		checkSameSize("arrays", keys.length, values.length);
+		LongLongHashMap dst = new LongLongHashMap(keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			if(errorIfDuplicateKey && dst.containsKey(keys[i])) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + keys[i]);
+			}
+			dst.put(keys[i], values[i]);
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongLongHashMap} from collections of keys and values
+	 * @see #longLongMap(long[], long[], boolean)
+	 */
+	public static final LongLongHashMap longLongMap(Collection<Long> keys, Collection<Long> values, boolean errorIfDuplicateKey) {
+		checkSameSize("collections", keys.size(), values.size());
+		LongLongHashMap dst = new LongLongHashMap(keys.size());
+		Iterator<Long> valueIter = values.iterator();
+		for(Long key : keys) {
+			if(errorIfDuplicateKey && dst.containsKey(key)) {
+				throw new IllegalArgumentException("duplicate key encountered while building map: " + key);
+			}
+			dst.put(key, valueIter.next());
+		}
+		return dst;
+	}
+
+
+	/** Creates a {@link LongLongHashMap} containing the remaining entries from the iterator provided, the last value of duplicate keys is kept
+	 * @param entryIter an entry iterator containing the keys and values to include in the map
+	 * @return a new map containing the iterator's entries
+	 */
+	public static final LongLongHashMap longLongMap(Iterator<? extends Map.Entry<Long, Long>> entryIter) {
+		LongLongHashMap dst = new LongLongHashMap();
+		while(entryIter.hasNext()) {
+			Map.Entry<Long, Long> entry = entryIter.next();
+			dst.put(entry.getKey(), entry.getValue());
+		}
+		return dst;
+	}
+
+
+	// ==== Memory-mapped maps ====
+
+	/** Write a map to a file in a compact hash table format which can be opened with {@link #openMapped(Path, ElementCodec, ElementCodec)}.
+	 * Build large static lookup maps once with this method, then later processes can open them without parsing or copying the entries onto the heap
+	 * @param source the map to write, must not contain null keys
+	 * @param keyCodec serializes the map's keys, equal keys must serialize to identical bytes
+	 * @param valueCodec serializes the map's values
+	 * @param file the file to create or overwrite
+	 * @throws IOException if the file cannot be written or a codec throws an error
+	 * @throws IllegalArgumentException if {@code source} contains a null key or the file would exceed 2GB
+	 */
+	public static final <K, V> void writeMapped(Map<? extends K, ? extends V> source, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec, Path file) throws IOException {
+		MappedHashMap.write(source, keyCodec, valueCodec, file);
+	}
+
+
+	/** Open a file written by {@link #writeMapped(Map, ElementCodec, ElementCodec, Path)} as an immutable map.
+	 * The file is memory-mapped, opening it takes constant time and lookups read and decode entries directly from the mapped file.
+	 * The file should not be modified while the map is in use
+	 * @param file the file to open
+	 * @param keyCodec the key codec the file was written with
+	 * @param valueCodec the value codec the file was written with
+	 * @return a read-only, thread safe, map backed by the file
+	 * @throws IOException if the file cannot be read or was not written by {@link #writeMapped(Map, ElementCodec, ElementCodec, Path)}
+	 */
+	public static final <K, V> Map<K, V> openMapped(Path file, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec) throws IOException {
+		return MappedHashMap.open(file, keyCodec, valueCodec);
+	}
+
+
+	private static final void checkSameSize(String type, int size1, int size2) {
+		if(size1 != size2) {
+			throw new IllegalArgumentException("cannot combine " + type + " with different lengths, keys has " + size1 + " elements, values has " + size2);
+		}
+	}
+
+
+	private static final Object[] toKeyValueArray(Iterator<? extends Map.Entry<?, ?>> entries) {
+		List<Object> kvs = new ArrayList<>();
+		while(entries.hasNext()) {
+			Map.Entry<?, ?> entry = entries.next();
+			kvs.add(entry.getKey());
+			kvs.add(entry.getValue());
+		}
+		return kvs.toArray();
+	}
+
 }
@@ -0,0 +1,178 @@
+package twg2.collections.builder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/** Parallel and sorted merge strategies for combining maps with last-map-wins precedence
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see MapBuilder#concatParallel(List)
+ * @see MapBuilder#concatSorted(List)
+ */
+final class MapConcat {
+	/** The total number of entries below which maps are combined on the current thread */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	private MapConcat() { throw new AssertionError("cannot instantiate static class MapConcat"); }
+
+
+	/** Combine maps in parallel. The entries of each map are split into hash partitions in parallel,
+	 * then each partition is merged into the result by one task which visits the maps in order, so the last map containing a key wins.
+	 */
+	static <K, V> ConcurrentHashMap<K, V> concatParallel(List<? extends Map<? extends K, ? extends V>> maps) {
+		int mapCount = maps.size();
+		long total = 0;
+		for(int i = 0; i < mapCount; i++) {
+			total += maps.get(i).size();
+		}
+		ConcurrentHashMap<K, V> res = new ConcurrentHashMap<>((int)Math.min(total, Hashing.MAX_TABLE_SIZE));
+
+		if(total < PARALLEL_THRESHOLD) {
+			for(int i = 0; i < mapCount; i++) {
+				for(Map.Entry<? extends K, ? extends V> entry : maps.get(i).entrySet()) {
+					res.put(requireKey(entry.getKey()), requireValue(entry.getValue()));
+				}
+			}
+			return res;
+		}
+
+		int partitionCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+		int mask = partitionCount - 1;
+		// partitions[map][partition] = the map's entries which hash to the partition
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		List<Map.Entry<? extends K, ? extends V>>[][] partitions = new List[mapCount][];
+		IntStream.range(0, mapCount).parallel().forEach((i) -> {
+			Map<? extends K, ? extends V> map = maps.get(i);
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			List<Map.Entry<? extends K, ? extends V>>[] mapParts = new List[partitionCount];
+			int expected = map.size() / partitionCount + 1;
+			for(int p = 0; p < partitionCount; p++) {
+				mapParts[p] = new ArrayList<>(expected);
+			}
+			for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+				requireValue(entry.getValue());
+				mapParts[Hashing.mix(requireKey(entry.getKey()).hashCode()) & mask].add(entry);
+			}
+			partitions[i] = mapParts;
+		});
+
+		IntStream.range(0, partitionCount).parallel().forEach((p) -> {
+			for(int i = 0; i < mapCount; i++) {
+				List<Map.Entry<? extends K, ? extends V>> part = partitions[i][p];
+				for(int j = 0, size = part.size(); j < size; j++) {
+					Map.Entry<? extends K, ? extends V> entry = part.get(j);
+					res.put(entry.getKey(), entry.getValue());
+				}
+			}
+		});
+		return res;
+	}
+
+
+	/** Combine sorted maps with a k-way merge of their entries into sorted arrays, which are then copied into a {@link TreeMap} in linear time
+	 */
+	static <K, V> TreeMap<K, V> concatSorted(List<? extends SortedMap<K, ? extends V>> maps) {
+		if(maps.isEmpty()) {
+			return new TreeMap<>();
+		}
+		Comparator<? super K> comparator = maps.get(0).comparator();
+		for(int i = 1, n = maps.size(); i < n; i++) {
+			if(!Objects.equals(comparator, maps.get(i).comparator())) {
+				throw new IllegalArgumentException("cannot merge sorted maps with different comparators, map 0 comparator: " + comparator + ", map " + i + " comparator: " + maps.get(i).comparator());
+			}
+		}
+		@SuppressWarnings("unchecked")
+		Comparator<? super K> keyComparator = comparator != null ? comparator : (a, b) -> ((Comparable<? super K>)a).compareTo(b);
+
+		PriorityQueue<Cursor<K, V>> heap = new PriorityQueue<>(maps.size(), (a, b) -> {
+			int cmp = keyComparator.compare(a.entry.getKey(), b.entry.getKey());
+			return cmp != 0 ? cmp : Integer.compare(a.mapIndex, b.mapIndex);
+		});
+		int total = 0;
+		for(int i = 0, n = maps.size(); i < n; i++) {
+			SortedMap<K, ? extends V> map = maps.get(i);
+			total += map.size();
+			Cursor<K, V> cursor = new Cursor<>(i, map.entrySet().iterator());
+			if(cursor.advance()) {
+				heap.add(cursor);
+			}
+		}
+
+		Object[] keys = new Object[total];
+		Object[] values = new Object[total];
+		int count = 0;
+		while(!heap.isEmpty()) {
+			Cursor<K, V> cursor = heap.poll();
+			K key = cursor.entry.getKey();
+			V value = cursor.entry.getValue();
+			if(cursor.advance()) {
+				heap.add(cursor);
+			}
+			// the heap breaks key ties by map index, so the last cursor with this key belongs to the last map containing it
+			while(!heap.isEmpty() && keyComparator.compare(heap.peek().entry.getKey(), key) == 0) {
+				Cursor<K, V> dup = heap.poll();
+				value = dup.entry.getValue();
+				if(dup.advance()) {
+					heap.add(dup);
+				}
+			}
+			keys[count] = key;
+			values[count] = value;
+			count++;
+		}
+		// TreeMap builds its tree in linear time when copying a SortedMap with the same comparator
+		return new TreeMap<>(SortedArrayMap.<K, V>wrapSorted(comparator, keys, values, count));
+	}
+
+
+	private static <K> K requireKey(K key) {
+		if(key == null) {
+			throw new NullPointerException("parallel concat does not support null keys");
+		}
+		return key;
+	}
+
+
+	private static <V> V requireValue(V value) {
+		if(value == null) {
+			throw new NullPointerException("parallel concat does not support null values");
+		}
+		return value;
+	}
+
+
+	/** The current entry of one sorted map being merged
+	 */
+	private static final class Cursor<K, V> {
+		final int mapIndex;
+		final Iterator<? extends Map.Entry<K, ? extends V>> iter;
+		Map.Entry<K, ? extends V> entry;
+
+
+		Cursor(int mapIndex, Iterator<? extends Map.Entry<K, ? extends V>> iter) {
+			this.mapIndex = mapIndex;
+			this.iter = iter;
+		}
+
+
+		boolean advance() {
+			if(iter.hasNext()) {
+				entry = iter.next();
+				return true;
+			}
+			entry = null;
+			return false;
+		}
+
+	}
+
+}
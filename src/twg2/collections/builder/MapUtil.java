@@ -10,6 +10,10 @@ import java.util.RandomAccess;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
 
 /** Utility functions for {@link Map} operations, such as filtering,
  * transforming to and from {@link Collection}, etc.
@@ -339,4 +343,116 @@ public final class MapUtil {
 		return resMap;
 	}
 
+
+	/** Transform the values of a primitive keyed map into a new map with the same keys
+	 * @param map the input map
+	 * @param transformer the function to transform each value
+	 * @return a new map containing each of {@code map}'s keys associated with its transformed value
+	 */
+	public static final <V, R> IntObjectHashMap<R> mapValues(IntObjectHashMap<V> map, Function<? super V, ? extends R> transformer) {
+		IntObjectHashMap<R> dst = new IntObjectHashMap<>(map.size());
+		map.forEach((k, v) -> dst.put(k, transformer.apply(v)));
+		return dst;
+	}
+
+
+	/** Filter a primitive keyed map by key into a new map
+	 * @param map the input map
+	 * @param filter the function which returns true for keys to keep
+	 * @return a new map containing the entries from {@code map} whose keys match the {@code filter}
+	 */
+	public static final <V> IntObjectHashMap<V> filterKeys(IntObjectHashMap<V> map, IntPredicate filter) {
+		IntObjectHashMap<V> dst = new IntObjectHashMap<>();
+		map.forEach((k, v) -> {
+			if(filter.test(k)) {
+				dst.put(k, v);
+			}
+		});
+		return dst;
+	}
+
+
+	/** Transform the values of a primitive keyed map into a new map with the same keys
+	 * @param map the input map
+	 * @param transformer the function to transform each value
+	 * @return a new map containing each of {@code map}'s keys associated with its transformed value
+	 */
+	public static final <V, R> LongObjectHashMap<R> mapValues(LongObjectHashMap<V> map, Function<? super V, ? extends R> transformer) {
+		LongObjectHashMap<R> dst = new LongObjectHashMap<>(map.size());
+		map.forEach((k, v) -> dst.put(k, transformer.apply(v)));
+		return dst;
+	}
+
+
+	/** Filter a primitive keyed map by key into a new map
+	 * @param map the input map
+	 * @param filter the function which returns true for keys to keep
+	 * @return a new map containing the entries from {@code map} whose keys match the {@code filter}
+	 */
+	public static final <V> LongObjectHashMap<V> filterKeys(LongObjectHashMap<V> map, LongPredicate filter) {
+		LongObjectHashMap<V> dst = new LongObjectHashMap<>();
+		map.forEach((k, v) -> {
+			if(filter.test(k)) {
+				dst.put(k, v);
+			}
+		});
+		return dst;
+	}
+
+
+	/** Transform the values of a primitive map into a new map with the same keys
+	 * @param map the input map
+	 * @param transformer the function to transform each value
+	 * @return a new map containing each of {@code map}'s keys associated with its transformed value
+	 */
+	public static final IntIntHashMap mapValues(IntIntHashMap map, IntUnaryOperator transformer) {
+		IntIntHashMap dst = new IntIntHashMap(map.size());
+		map.forEach((k, v) -> dst.put(k, transformer.applyAsInt(v)));
+		return dst;
+	}
+
+
+	/** Filter a primitive map by key into a new map
+	 * @param map the input map
+	 * @param filter the function which returns true for keys to keep
+	 * @return a new map containing the entries from {@code map} whose keys match the {@code filter}
+	 */
+	public static final IntIntHashMap filterKeys(IntIntHashMap map, IntPredicate filter) {
+		IntIntHashMap dst = new IntIntHashMap();
+		map.forEach((k, v) -> {
+			if(filter.test(k)) {
+				dst.put(k, v);
+			}
+		});
+		return dst;
+	}
+
+
+	/** Transform the values of a primitive map into a new map with the same keys
+	 * @param map the input map
+	 * @param transformer the function to transform each value
+	 * @return a new map containing each of {@code map}'s keys associated with its transformed value
+	 */
+	public static final LongLongHashMap mapValues(LongLongHashMap map, LongUnaryOperator transformer) {
+		LongLongHashMap dst = new LongLongHashMap(map.size());
+		map.forEach((k, v) -> dst.put(k, transformer.applyAsLong(v)));
+		return dst;
+	}
+
+
+	/** Filter a primitive map by key into a new map
+	 * @param map the input map
+	 * @param filter the function which returns true for keys to keep
+	 * @return a new map containing the entries from {@code map} whose keys match the {@code filter}
+	 */
+	public static final LongLongHashMap filterKeys(LongLongHashMap map, LongPredicate filter) {
+		LongLongHashMap dst = new LongLongHashMap();
+		map.forEach((k, v) -> {
+			if(filter.test(k)) {
+				dst.put(k, v);
+			}
+		});
+		return dst;
+	}
+
 }
@@ -0,0 +1,116 @@
+package twg2.collections.builder;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/** Parallel construction of a map from a list of keys and a list of values
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see MapBuilder#mutableParallel(List, List, boolean)
+ */
+final class MapZip {
+	/** The number of entries below which maps are built on the current thread */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+	/** The number of keys each task splits into hash partitions */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	private MapZip() { throw new AssertionError("cannot instantiate static class MapZip"); }
+
+
+	/** Combine keys and values into a presized {@link ConcurrentHashMap}. Each chunk of the key list is split into hash partitions in parallel,
+	 * then each partition's keys are added to the result by one task in source order. Partitions are disjoint, so the last value of a
+	 * duplicate key wins and each partition finds its earliest duplicate key with {@link ConcurrentHashMap#putIfAbsent(Object, Object)}.
+	 * No single threaded merge is needed.
+	 * @throws IllegalArgumentException if {@code errorIfDuplicateKey} is true and a key occurs more than once,
+	 * the key reported is the first key, in source order, which duplicates an earlier key
+	 * @throws NullPointerException if a key or value is null
+	 */
+	static <K, V> ConcurrentHashMap<K, V> zipParallel(List<? extends K> keys, List<? extends V> values, boolean errorIfDuplicateKey) {
+		int size = keys.size();
+		ConcurrentHashMap<K, V> res = new ConcurrentHashMap<>(size);
+		if(size < PARALLEL_THRESHOLD) {
+			for(int i = 0; i < size; i++) {
+				K key = requireKey(keys.get(i));
+				V value = requireValue(values.get(i));
+				if(errorIfDuplicateKey) {
+					if(res.putIfAbsent(key, value) != null) {
+						throw new IllegalArgumentException("duplicate key encountered while building map: " + key);
+					}
+				}
+				else {
+					res.put(key, value);
+				}
+			}
+			return res;
+		}
+
+		int partitionCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+		int mask = partitionCount - 1;
+		int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		// chunks[chunk][partition] = the indices, in source order, of the chunk's keys which hash to the partition
+		IntArrayList[][] chunks = new IntArrayList[chunkCount][];
+		IntStream.range(0, chunkCount).parallel().forEach((c) -> {
+			int start = c * CHUNK_SIZE;
+			int end = Math.min(start + CHUNK_SIZE, size);
+			IntArrayList[] parts = new IntArrayList[partitionCount];
+			int expected = (end - start) / partitionCount + 1;
+			for(int p = 0; p < partitionCount; p++) {
+				parts[p] = new IntArrayList(expected);
+			}
+			for(int i = start; i < end; i++) {
+				requireValue(values.get(i));
+				parts[Hashing.mix(requireKey(keys.get(i)).hashCode()) & mask].add(i);
+			}
+			chunks[c] = parts;
+		});
+
+		// the lowest index of a key which duplicates an earlier key, partitions stop once they pass it
+		AtomicInteger firstDuplicate = new AtomicInteger(Integer.MAX_VALUE);
+		IntStream.range(0, partitionCount).parallel().forEach((p) -> {
+			for(int c = 0; c < chunkCount; c++) {
+				IntArrayList part = chunks[c][p];
+				for(int j = 0, n = part.size(); j < n; j++) {
+					int i = part.get(j);
+					if(errorIfDuplicateKey) {
+						if(i > firstDuplicate.get()) {
+							return;
+						}
+						// only this partition's task adds keys which hash to this partition, so an existing key was added earlier in source order
+						if(res.putIfAbsent(keys.get(i), values.get(i)) != null) {
+							firstDuplicate.accumulateAndGet(i, Math::min);
+							return;
+						}
+					}
+					else {
+						res.put(keys.get(i), values.get(i));
+					}
+				}
+			}
+		});
+
+		int dupIdx = firstDuplicate.get();
+		if(dupIdx != Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("duplicate key encountered while building map: " + keys.get(dupIdx));
+		}
+		return res;
+	}
+
+
+	private static <K> K requireKey(K key) {
+		if(key == null) {
+			throw new NullPointerException("parallel map building does not support null keys");
+		}
+		return key;
+	}
+
+
+	private static <V> V requireValue(V value) {
+		if(value == null) {
+			throw new NullPointerException("parallel map building does not support null values");
+		}
+		return value;
+	}
+
+}
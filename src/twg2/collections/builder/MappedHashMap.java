@@ -0,0 +1,336 @@
+package twg2.collections.builder;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/** A read-only map which answers lookups directly from a memory-mapped file containing an open-addressing hash table.
+ * The map data lives outside of the Java heap and opening the map only reads the file header, entries are decoded on request.<br>
+ * File format (big endian):
+ * <pre>
+ * header:  int magic, int version, int entry count, int table size (a power of two)
+ * table:   table size slots of {int key hash, int record offset}, an offset of 0 marks an empty slot
+ * records: for each entry {int key byte count, key bytes, value bytes}
+ * </pre>
+ * Keys are hashed using their encoded bytes, not {@link Object#hashCode()}, so files are portable between JVMs.
+ * The file is limited to 2GB, the size of a single mapping. Lookups are thread safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#writeMapped(Map, ElementCodec, ElementCodec, Path)
+ * @see MapBuilder#openMapped(Path, ElementCodec, ElementCodec)
+ */
+final class MappedHashMap<K, V> extends AbstractMap<K, V> {
+	private static final int MAGIC = 0x4A434D48;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int SLOT_SIZE = 8;
+	private static final float LOAD_FACTOR = 0.5f;
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+
+	private final ByteBuffer buffer;
+	private final ElementCodec<K> keyCodec;
+	private final ElementCodec<V> valueCodec;
+	private final int size;
+	private final int mask;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	private MappedHashMap(ByteBuffer buffer, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec, int size, int tableSize) {
+		this.buffer = buffer;
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		this.size = size;
+		this.mask = tableSize - 1;
+	}
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return recordOffset(key) > 0;
+	}
+
+
+	@Override
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int offset = recordOffset(key);
+		if(offset <= 0) {
+			return defaultValue;
+		}
+		try {
+			DataInputStream in = reader(offset);
+			in.skipBytes(in.readInt());
+			return valueCodec.read(in);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	/**
+	 * @return the offset of the key's record, or -1 if the key does not exist in this map or is not a {@code K}
+	 */
+	@SuppressWarnings("unchecked")
+	private int recordOffset(Object key) {
+		if(key == null) {
+			return -1;
+		}
+		byte[] keyBytes;
+		try {
+			keyBytes = encode((K)key, keyCodec, new ByteArrayOutputStream());
+		} catch(ClassCastException e) {
+			return -1;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		int hash = hash(keyBytes, keyBytes.length);
+		ByteBuffer buf = buffer;
+		// a valid table always has an empty slot, the probe count is bounded so that a corrupt file cannot loop forever
+		for(int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+			int slot = HEADER_SIZE + i * SLOT_SIZE;
+			int offset = buf.getInt(slot + 4);
+			if(offset == 0) {
+				return -1;
+			}
+			if(buf.getInt(slot) == hash && keyEquals(offset, keyBytes)) {
+				return offset;
+			}
+		}
+		throw new UncheckedIOException(new IOException("corrupt mapped map file, the hash table has no empty slots"));
+	}
+
+
+	private boolean keyEquals(int offset, byte[] keyBytes) {
+		ByteBuffer buf = buffer;
+		if(buf.getInt(offset) != keyBytes.length) {
+			return false;
+		}
+		for(int i = 0, start = offset + 4; i < keyBytes.length; i++) {
+			if(buf.get(start + i) != keyBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private DataInputStream reader(int offset) {
+		ByteBuffer buf = buffer.duplicate();
+		buf.position(offset);
+		return new DataInputStream(new InputStream() {
+			@Override
+			public int read() {
+				return buf.hasRemaining() ? (buf.get() & 0xFF) : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				if(!buf.hasRemaining()) {
+					return -1;
+				}
+				int n = Math.min(len, buf.remaining());
+				buf.get(b, off, n);
+				return n;
+			}
+		});
+	}
+
+
+	/** Write a map to a file in the format read by {@link #open(Path, ElementCodec, ElementCodec)}
+	 * @throws IllegalArgumentException if the map contains a null key or the file would exceed 2GB
+	 */
+	static <K, V> void write(Map<? extends K, ? extends V> map, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec, Path file) throws IOException {
+		int count = map.size();
+		int tableSize = Hashing.tableSize(count, LOAD_FACTOR);
+		long recordsStart = HEADER_SIZE + (long)tableSize * SLOT_SIZE;
+		if(recordsStart > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("map too large to write as a mapped file: " + count + " entries");
+		}
+		int[] slotHashes = new int[tableSize];
+		int[] slotOffsets = new int[tableSize];
+		int mask = tableSize - 1;
+
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(recordsStart);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), IO_BUFFER_SIZE));
+			ByteArrayOutputStream keyBuffer = new ByteArrayOutputStream();
+			long position = recordsStart;
+			int written = 0;
+			for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+				K key = entry.getKey();
+				if(key == null) {
+					throw new IllegalArgumentException("mapped maps do not support null keys");
+				}
+				byte[] keyBytes = encode(key, keyCodec, keyBuffer);
+				int hash = hash(keyBytes, keyBytes.length);
+				int i = hash & mask;
+				while(slotOffsets[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				slotHashes[i] = hash;
+				slotOffsets[i] = (int)position;
+
+				int before = out.size();
+				out.writeInt(keyBytes.length);
+				out.write(keyBytes);
+				valueCodec.write(entry.getValue(), out);
+				position += out.size() - before;
+				written++;
+				if(position > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("map too large to write as a mapped file, exceeded 2GB after " + written + " entries");
+				}
+			}
+			out.flush();
+
+			ByteBuffer head = ByteBuffer.allocate((int)recordsStart);
+			head.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(tableSize);
+			for(int i = 0; i < tableSize; i++) {
+				head.putInt(slotHashes[i]).putInt(slotOffsets[i]);
+			}
+			head.flip();
+			long pos = 0;
+			while(head.hasRemaining()) {
+				pos += channel.write(head, pos);
+			}
+		}
+	}
+
+
+	/** Open a file written by {@link #write(Map, ElementCodec, ElementCodec, Path)}
+	 * @throws IOException if the file can not be read or is not a mapped map file
+	 */
+	static <K, V> MappedHashMap<K, V> open(Path file, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec) throws IOException {
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if(fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+				throw new IOException("not a mapped map file: " + file);
+			}
+			// the mapping remains valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+		}
+		if(buffer.getInt(0) != MAGIC) {
+			throw new IOException("not a mapped map file: " + file);
+		}
+		if(buffer.getInt(4) != VERSION) {
+			throw new IOException("unsupported mapped map file version " + buffer.getInt(4) + ": " + file);
+		}
+		int count = buffer.getInt(8);
+		int tableSize = buffer.getInt(12);
+		if(Integer.bitCount(tableSize) != 1 || HEADER_SIZE + (long)tableSize * SLOT_SIZE > buffer.capacity()) {
+			throw new IOException("corrupt mapped map file table size " + tableSize + ": " + file);
+		}
+		if(count < 0 || count >= tableSize) {
+			throw new IOException("corrupt mapped map file entry count " + count + " for table size " + tableSize + ": " + file);
+		}
+		return new MappedHashMap<>(buffer, keyCodec, valueCodec, count, tableSize);
+	}
+
+
+	private static <T> byte[] encode(T value, ElementCodec<T> codec, ByteArrayOutputStream buffer) throws IOException {
+		buffer.reset();
+		DataOutputStream out = new DataOutputStream(buffer);
+		codec.write(value, out);
+		out.flush();
+		return buffer.toByteArray();
+	}
+
+
+	/** A stable hash of a byte array (32 bit FNV-1a with additional mixing), which does not depend on the JVM or {@link Object#hashCode()}
+	 */
+	private static int hash(byte[] bytes, int len) {
+		int h = 0x811C9DC5;
+		for(int i = 0; i < len; i++) {
+			h = (h ^ (bytes[i] & 0xFF)) * 0x01000193;
+		}
+		return Hashing.mix(h);
+	}
+
+
+	/** A read-only view of the entries, decoded from the records in table order
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+				private int slot = advance(0);
+
+				@Override
+				public boolean hasNext() {
+					return slot <= mask;
+				}
+
+				@Override
+				public Map.Entry<K, V> next() {
+					if(slot > mask) {
+						throw new NoSuchElementException();
+					}
+					int offset = buffer.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4);
+					slot = advance(slot + 1);
+					try {
+						DataInputStream in = reader(offset + 4);
+						K key = keyCodec.read(in);
+						V value = valueCodec.read(in);
+						return new AbstractMap.SimpleImmutableEntry<>(key, value);
+					} catch(IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				private int advance(int i) {
+					while(i <= mask && buffer.getInt(HEADER_SIZE + i * SLOT_SIZE + 4) == 0) {
+						i++;
+					}
+					return i;
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,29 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.List;
+
+/** The result of splitting values into those which match a condition and those which do not
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <E> the type of elements
+ * @see GroupBy#partition(Iterable, java.util.function.Predicate)
+ */
+@SuppressWarnings("serial")
+public class Partition<E> extends AbstractMap.SimpleImmutableEntry<List<E>, List<E>> {
+
+	public Partition(List<E> matching, List<E> nonMatching) {
+		super(matching, nonMatching);
+	}
+
+
+	public List<E> getMatching() {
+		return super.getKey();
+	}
+
+
+	public List<E> getNonMatching() {
+		return super.getValue();
+	}
+
+}
@@ -0,0 +1,154 @@
+package twg2.collections.builder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/** An immutable map built using a minimal perfect hash function (the CHD "compress, hash, displace" algorithm).
+ * Keys are hashed into buckets, and each bucket stores a displacement which maps every key in that bucket to its own slot,
+ * so the table has exactly one slot per entry and a lookup costs one hash, two array loads, and one {@code equals()}.<br>
+ * Building is more expensive than a regular hash table, so this is intended for tables built once and read many times,
+ * such as enum name lookups. Keys whose hash codes collide can not be separated by any displacement, if that happens
+ * {@link #create(Object[], int)} returns a regular open-addressing {@link ImmutableArrayMap} instead.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#immutableEnumNames(Class)
+ */
+final class PerfectHashMap<K, V> extends ImmutableArrayMap<K, V> {
+	/** The average number of keys per bucket */
+	private static final int BUCKET_SIZE = 2;
+	/** The number of displacements tried for each bucket, multiplied by the number of keys, before giving up */
+	private static final int MAX_DISPLACEMENT_FACTOR = 64;
+
+	/** the displacement for each bucket */
+	private final int[] displacements;
+
+
+	private PerfectHashMap(Object[] table, int[] displacements) {
+		super(table, table.length / 2);
+		this.displacements = displacements;
+	}
+
+
+	@Override
+	int indexOf(Object key) {
+		Object k = maskNull(key);
+		int h = k.hashCode();
+		int[] displacements = this.displacements;
+		int i = slot(h, displacements[bucket(h, displacements.length)], size) * 2;
+		return k.equals(table[i]) ? i : -1;
+	}
+
+
+	/** Create a perfect hash map, the last value of each duplicate key is kept
+	 * @param kvs alternating keys and values, may contain duplicate keys
+	 * @param count the number of key-value pairs in {@code kvs}
+	 * @return a new {@link PerfectHashMap}, or a regular {@link ImmutableArrayMap} if the keys could not be perfectly hashed or there are no keys
+	 */
+	static <K, V> Map<K, V> create(Object[] kvs, int count) {
+		// remove duplicate keys, keeping the last value
+		Map<Object, Object> unique = new HashMap<>(Hashing.hashMapCapacity(count));
+		for(int i = 0; i < count * 2; i += 2) {
+			unique.put(maskNull(kvs[i]), kvs[i + 1]);
+		}
+		int n = unique.size();
+		if(n == 0) {
+			return ImmutableArrayMap.copyOf(kvs, 0);
+		}
+		Object[] keys = unique.keySet().toArray();
+		int[] hashes = new int[n];
+		for(int i = 0; i < n; i++) {
+			hashes[i] = keys[i].hashCode();
+		}
+
+		int bucketCount = (n + BUCKET_SIZE - 1) / BUCKET_SIZE;
+		int[] displacements = findDisplacements(hashes, bucketCount);
+		if(displacements == null) {
+			return ImmutableArrayMap.copyOf(kvs, count);
+		}
+
+		Object[] table = new Object[n * 2];
+		for(int i = 0; i < n; i++) {
+			int s = slot(hashes[i], displacements[bucket(hashes[i], bucketCount)], n) * 2;
+			table[s] = keys[i];
+			table[s + 1] = unique.get(keys[i]);
+		}
+		return new PerfectHashMap<>(table, displacements);
+	}
+
+
+	/** Find a displacement for each bucket which places each of the bucket's keys in an unused slot, processing the largest buckets first
+	 * @return the displacement for each bucket, or null if no displacement could be found for a bucket
+	 */
+	private static int[] findDisplacements(int[] hashes, int bucketCount) {
+		int n = hashes.length;
+		// sort the key indexes by bucket using a counting sort
+		int[] bucketStarts = new int[bucketCount + 1];
+		for(int h : hashes) {
+			bucketStarts[bucket(h, bucketCount) + 1]++;
+		}
+		for(int b = 0; b < bucketCount; b++) {
+			bucketStarts[b + 1] += bucketStarts[b];
+		}
+		int[] next = Arrays.copyOf(bucketStarts, bucketCount);
+		int[] keysByBucket = new int[n];
+		for(int i = 0; i < n; i++) {
+			keysByBucket[next[bucket(hashes[i], bucketCount)]++] = i;
+		}
+
+		Integer[] bucketOrder = new Integer[bucketCount];
+		for(int b = 0; b < bucketCount; b++) {
+			bucketOrder[b] = b;
+		}
+		Arrays.sort(bucketOrder, (a, b) -> (bucketStarts[b + 1] - bucketStarts[b]) - (bucketStarts[a + 1] - bucketStarts[a]));
+
+		int[] displacements = new int[bucketCount];
+		boolean[] used = new boolean[n];
+		int[] slots = new int[n];
+		int maxDisplacement = Math.max(n, 16) * MAX_DISPLACEMENT_FACTOR;
+		for(int b : bucketOrder) {
+			int start = bucketStarts[b];
+			int len = bucketStarts[b + 1] - start;
+			if(len == 0) {
+				break;
+			}
+			int d = 0;
+			for(; d < maxDisplacement; d++) {
+				int placed = 0;
+				for(; placed < len; placed++) {
+					int s = slot(hashes[keysByBucket[start + placed]], d, n);
+					if(used[s]) {
+						break;
+					}
+					used[s] = true;
+					slots[placed] = s;
+				}
+				if(placed == len) {
+					break;
+				}
+				// undo the partial placement and try the next displacement
+				for(int j = 0; j < placed; j++) {
+					used[slots[j]] = false;
+				}
+			}
+			if(d == maxDisplacement) {
+				return null;
+			}
+			displacements[b] = d;
+		}
+		return displacements;
+	}
+
+
+	private static int bucket(int hash, int bucketCount) {
+		return (Hashing.mix(hash) >>> 1) % bucketCount;
+	}
+
+
+	private static int slot(int hash, int displacement, int slotCount) {
+		return (Hashing.mix(hash ^ Hashing.mix(~displacement)) >>> 1) % slotCount;
+	}
+
+}
@@ -0,0 +1,476 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/** An immutable, persistent hash map implemented as a hash array mapped trie (HAMT).
+ * {@link #with(Object, Object)}, {@link #without(Object)}, and {@link #withAll(Map)} return new maps which share
+ * all unchanged trie nodes with this map, so an update copies O(log<sub>32</sub> n) small nodes instead of the whole map.
+ * Since instances never change, they can be safely shared between threads without copying.<br>
+ * Each trie node has a 32 bit bitmap of its occupied hash slots and a packed array containing only the occupied slots,
+ * keys with identical hashes share a collision node. Null keys and values are allowed, the null key is stored outside the trie.
+ * The {@link Map} mutator methods throw {@link UnsupportedOperationException}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#persistent(Map)
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final Object NOT_FOUND = new Object();
+	private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(null, 0, false, null);
+
+	private final Node root;
+	private final int size;
+	private final boolean hasNull;
+	private final V nullValue;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	private PersistentHashMap(Node root, int size, boolean hasNull, V nullValue) {
+		this.root = root;
+		this.size = size;
+		this.hasNull = hasNull;
+		this.nullValue = nullValue;
+	}
+
+
+	/**
+	 * @return the empty persistent map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>)EMPTY;
+	}
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		if(key == null) {
+			return hasNull;
+		}
+		return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+	}
+
+
+	@Override
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		if(key == null) {
+			return hasNull ? nullValue : defaultValue;
+		}
+		if(root == null) {
+			return defaultValue;
+		}
+		Object val = root.find(0, hash(key), key);
+		return val != NOT_FOUND ? (V)val : defaultValue;
+	}
+
+
+	/**
+	 * @return a map containing this map's entries and the key associated with the value, or this map if the key is already associated with the same value instance
+	 */
+	public PersistentHashMap<K, V> with(K key, V value) {
+		if(key == null) {
+			if(hasNull && nullValue == value) {
+				return this;
+			}
+			return new PersistentHashMap<>(root, hasNull ? size : size + 1, true, value);
+		}
+		boolean[] added = new boolean[1];
+		Node newRoot = (root != null ? root : BitmapNode.EMPTY).with(0, hash(key), key, value, added);
+		if(newRoot == root) {
+			return this;
+		}
+		return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size, hasNull, nullValue);
+	}
+
+
+	/**
+	 * @return a map containing this map's entries except for the key, or this map if the key does not exist in this map
+	 */
+	public PersistentHashMap<K, V> without(Object key) {
+		if(key == null) {
+			return hasNull ? new PersistentHashMap<>(root, size - 1, false, null) : this;
+		}
+		if(root == null) {
+			return this;
+		}
+		Node newRoot = root.without(0, hash(key), key);
+		if(newRoot == root) {
+			return this;
+		}
+		return new PersistentHashMap<>(newRoot, size - 1, hasNull, nullValue);
+	}
+
+
+	/** Combine this map with another map according to the {@link Map#putAll(Map)} contract, the other map's values overwrite this map's values
+	 * @return a map containing this map's entries and {@code map}'s entries
+	 */
+	public PersistentHashMap<K, V> withAll(Map<? extends K, ? extends V> map) {
+		PersistentHashMap<K, V> res = this;
+		for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			res = res.with(entry.getKey(), entry.getValue());
+		}
+		return res;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if(hasNull) {
+			action.accept(null, nullValue);
+		}
+		if(root != null) {
+			root.forEach((BiConsumer<Object, Object>)action);
+		}
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	private static int hash(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+
+	/** A trie node, the arrays of both node types contain alternating keys and values, a null key marks a value which is a child node
+	 */
+	private static abstract class Node {
+		final Object[] array;
+
+
+		Node(Object[] array) {
+			this.array = array;
+		}
+
+
+		/**
+		 * @return the value associated with the key, or {@link PersistentHashMap#NOT_FOUND}
+		 */
+		abstract Object find(int shift, int hash, Object key);
+
+
+		/**
+		 * @param added set to true if the key did not already exist
+		 * @return the updated node, or this node if the key is already associated with the same value instance
+		 */
+		abstract Node with(int shift, int hash, Object key, Object value, boolean[] added);
+
+
+		/**
+		 * @return the updated node, this node if the key does not exist, or null if the node is empty after removing the key
+		 */
+		abstract Node without(int shift, int hash, Object key);
+
+
+		void forEach(BiConsumer<Object, Object> action) {
+			Object[] array = this.array;
+			for(int i = 0, n = array.length; i < n; i += 2) {
+				if(array[i] == null) {
+					((Node)array[i + 1]).forEach(action);
+				}
+				else {
+					action.accept(array[i], array[i + 1]);
+				}
+			}
+		}
+
+	}
+
+
+	/** A node with a bitmap of which of its 32 hash slots are occupied
+	 */
+	private static final class BitmapNode extends Node {
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		final int bitmap;
+
+
+		BitmapNode(int bitmap, Object[] array) {
+			super(array);
+			this.bitmap = bitmap;
+		}
+
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if((bitmap & bit) == 0) {
+				return NOT_FOUND;
+			}
+			int i = Integer.bitCount(bitmap & (bit - 1)) * 2;
+			Object k = array[i];
+			if(k == null) {
+				return ((Node)array[i + 1]).find(shift + BITS, hash, key);
+			}
+			return key.equals(k) ? array[i + 1] : NOT_FOUND;
+		}
+
+
+		@Override
+		Node with(int shift, int hash, Object key, Object value, boolean[] added) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = Integer.bitCount(bitmap & (bit - 1)) * 2;
+			if((bitmap & bit) == 0) {
+				Object[] newArray = new Object[array.length + 2];
+				System.arraycopy(array, 0, newArray, 0, i);
+				newArray[i] = key;
+				newArray[i + 1] = value;
+				System.arraycopy(array, i, newArray, i + 2, array.length - i);
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, newArray);
+			}
+			Object k = array[i];
+			Object v = array[i + 1];
+			if(k == null) {
+				Node child = ((Node)v).with(shift + BITS, hash, key, value, added);
+				return child == v ? this : copyWith(i + 1, child);
+			}
+			if(key.equals(k)) {
+				return v == value ? this : copyWith(i + 1, value);
+			}
+			added[0] = true;
+			Node child = pair(shift + BITS, k, v, hash, key, value);
+			Object[] newArray = array.clone();
+			newArray[i] = null;
+			newArray[i + 1] = child;
+			return new BitmapNode(bitmap, newArray);
+		}
+
+
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if((bitmap & bit) == 0) {
+				return this;
+			}
+			int i = Integer.bitCount(bitmap & (bit - 1)) * 2;
+			Object k = array[i];
+			if(k == null) {
+				Node child = (Node)array[i + 1];
+				Node newChild = child.without(shift + BITS, hash, key);
+				if(newChild == child) {
+					return this;
+				}
+				if(newChild != null) {
+					return copyWith(i + 1, newChild);
+				}
+			}
+			else if(!key.equals(k)) {
+				return this;
+			}
+			if(bitmap == bit) {
+				return null;
+			}
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, i);
+			System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+			return new BitmapNode(bitmap & ~bit, newArray);
+		}
+
+
+		private BitmapNode copyWith(int index, Object value) {
+			Object[] newArray = array.clone();
+			newArray[index] = value;
+			return new BitmapNode(bitmap, newArray);
+		}
+
+
+		/** Create a node containing two keys which share the same hash slot at the previous level
+		 */
+		private static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+			int hash1 = hash(key1);
+			if(hash1 == hash2) {
+				return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+			}
+			boolean[] added = new boolean[1];
+			return EMPTY.with(shift, hash1, key1, value1, added).with(shift, hash2, key2, value2, added);
+		}
+
+	}
+
+
+	/** A node containing keys which all have the same hash
+	 */
+	private static final class CollisionNode extends Node {
+		final int hash;
+
+
+		CollisionNode(int hash, Object[] array) {
+			super(array);
+			this.hash = hash;
+		}
+
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int i = indexOf(key);
+			return i > -1 ? array[i + 1] : NOT_FOUND;
+		}
+
+
+		@Override
+		Node with(int shift, int hash, Object key, Object value, boolean[] added) {
+			if(hash != this.hash) {
+				// nest this node in a bitmap node at this level and add the key beside it
+				Node parent = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[] { null, this });
+				return parent.with(shift, hash, key, value, added);
+			}
+			int i = indexOf(key);
+			if(i > -1) {
+				if(array[i + 1] == value) {
+					return this;
+				}
+				Object[] newArray = array.clone();
+				newArray[i + 1] = value;
+				return new CollisionNode(hash, newArray);
+			}
+			Object[] newArray = Arrays.copyOf(array, array.length + 2);
+			newArray[array.length] = key;
+			newArray[array.length + 1] = value;
+			added[0] = true;
+			return new CollisionNode(hash, newArray);
+		}
+
+
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int i = indexOf(key);
+			if(i < 0) {
+				return this;
+			}
+			if(array.length == 2) {
+				return null;
+			}
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, i);
+			System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+			return new CollisionNode(hash, newArray);
+		}
+
+
+		private int indexOf(Object key) {
+			for(int i = 0, n = array.length; i < n; i += 2) {
+				if(key.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+	}
+
+
+	/** A read-only view of the map's entries, iterated depth first using a stack of node arrays
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+				// a HAMT with 32 bit hashes is at most 7 bitmap levels plus a collision node deep
+				private final Object[][] arrays = new Object[9][];
+				private final int[] indexes = new int[9];
+				private int depth = -1;
+				private boolean nullPending = hasNull;
+				private Object nextKey;
+				private Object nextValue;
+				private boolean hasNextEntry;
+
+				{
+					if(root != null) {
+						depth = 0;
+						arrays[0] = root.array;
+					}
+					advance();
+				}
+
+				@Override
+				public boolean hasNext() {
+					return hasNextEntry;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Map.Entry<K, V> next() {
+					if(!hasNextEntry) {
+						throw new NoSuchElementException();
+					}
+					Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>((K)nextKey, (V)nextValue);
+					advance();
+					return entry;
+				}
+
+				private void advance() {
+					if(nullPending) {
+						nullPending = false;
+						nextKey = null;
+						nextValue = nullValue;
+						hasNextEntry = true;
+						return;
+					}
+					while(depth > -1) {
+						Object[] array = arrays[depth];
+						int i = indexes[depth];
+						if(i >= array.length) {
+							arrays[depth] = null;
+							indexes[depth] = 0;
+							depth--;
+							continue;
+						}
+						indexes[depth] = i + 2;
+						if(array[i] == null) {
+							depth++;
+							arrays[depth] = ((Node)array[i + 1]).array;
+						}
+						else {
+							nextKey = array[i];
+							nextValue = array[i + 1];
+							hasNextEntry = true;
+							return;
+						}
+					}
+					hasNextEntry = false;
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,343 @@
+package twg2.collections.builder;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+
+/** An immutable {@link SortedMap} which stores its keys and values in two parallel arrays sorted by key and searched by binary search.
+ * Sub, head, and tail maps are views which share the parent map's arrays.
+ * Unlike {@link java.util.TreeMap}, a view's range is not restricted to the range it was created with,
+ * creating a view of a view with keys outside of the view's range returns a view clamped to the view's entries.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @see MapBuilder#immutableSorted(Iterable)
+ * @see MapBuilder#immutableSorted(Comparator, Iterable)
+ */
+final class SortedArrayMap<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+	/** The maximum number of entries for which {@link ImmutableArrayMap#copyOf(Object[], int)} selects a sorted array map */
+	static final int MAX_AUTO_SIZE = 64;
+	/** Key types whose natural ordering is consistent with {@code equals()}, maps with these keys can be searched by comparison in place of hashing */
+	private static final Class<?>[] AUTO_KEY_TYPES = { String.class, Integer.class, Long.class, Short.class, Byte.class, Character.class };
+
+	private final Object[] keys;
+	private final Object[] values;
+	/** the range of array indices [from, to) included in this map or view */
+	private final int from;
+	private final int to;
+	/** the key comparator, null for natural ordering */
+	private final Comparator<? super K> comparator;
+	/** if not null, every key is an instance of this class and keys of other types (including null) are treated as absent instead of being compared */
+	private final Class<?> keyType;
+	private Set<Map.Entry<K, V>> entrySet;
+
+
+	private SortedArrayMap(Object[] keys, Object[] values, int from, int to, Comparator<? super K> comparator, Class<?> keyType) {
+		this.keys = keys;
+		this.values = values;
+		this.from = from;
+		this.to = to;
+		this.comparator = comparator;
+		this.keyType = keyType;
+	}
+
+
+	@Override
+	public int size() {
+		return to - from;
+	}
+
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) > -1;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		int i = indexOf(key);
+		return i > -1 ? (V)values[i] : null;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int i = indexOf(key);
+		return i > -1 ? (V)values[i] : defaultValue;
+	}
+
+
+	@Override
+	public boolean containsValue(Object value) {
+		for(int i = from; i < to; i++) {
+			if(Objects.equals(value, values[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for(int i = from; i < to; i++) {
+			action.accept((K)keys[i], (V)values[i]);
+		}
+	}
+
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> es = entrySet;
+		if(es == null) {
+			entrySet = es = new EntrySet();
+		}
+		return es;
+	}
+
+
+	@Override
+	public Comparator<? super K> comparator() {
+		return comparator;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public K firstKey() {
+		if(from == to) {
+			throw new NoSuchElementException();
+		}
+		return (K)keys[from];
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public K lastKey() {
+		if(from == to) {
+			throw new NoSuchElementException();
+		}
+		return (K)keys[to - 1];
+	}
+
+
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		if(compare(fromKey, toKey) > 0) {
+			throw new IllegalArgumentException("fromKey > toKey: " + fromKey + ", " + toKey);
+		}
+		return view(lowerBound(fromKey), lowerBound(toKey));
+	}
+
+
+	@Override
+	public SortedMap<K, V> headMap(K toKey) {
+		return view(from, lowerBound(toKey));
+	}
+
+
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey) {
+		return view(lowerBound(fromKey), to);
+	}
+
+
+	/**
+	 * @return the array index of the key, or -1 if the key does not exist in this map
+	 */
+	@SuppressWarnings("unchecked")
+	private int indexOf(Object key) {
+		if(keyType != null && (key == null || key.getClass() != keyType)) {
+			return -1;
+		}
+		int i = lowerBound((K)key);
+		return i < to && compare((K)keys[i], (K)key) == 0 ? i : -1;
+	}
+
+
+	/**
+	 * @return the index of the first key in this map which is greater than or equal to {@code key}, or {@code to} if there is no such key
+	 */
+	@SuppressWarnings("unchecked")
+	private int lowerBound(K key) {
+		int lo = from;
+		int hi = to;
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(compare((K)keys[mid], key) < 0) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private int compare(K a, K b) {
+		return comparator != null ? comparator.compare(a, b) : ((Comparable<? super K>)a).compareTo(b);
+	}
+
+
+	private SortedArrayMap<K, V> view(int fromIdx, int toIdx) {
+		if(fromIdx == from && toIdx == to) {
+			return this;
+		}
+		return new SortedArrayMap<>(keys, values, fromIdx, Math.max(fromIdx, toIdx), comparator, keyType);
+	}
+
+
+	/** Create a sorted array map, the last value of each duplicate key is kept
+	 * @param comparator the key comparator, or null to use the keys' natural ordering
+	 * @param kvs alternating keys and values, may contain duplicate keys
+	 * @param count the number of key-value pairs in {@code kvs}
+	 * @throws NullPointerException if {@code comparator} is null and a key is null
+	 */
+	static <K, V> SortedArrayMap<K, V> create(Comparator<? super K> comparator, Object[] kvs, int count) {
+		if(comparator == null) {
+			for(int i = 0; i < count * 2; i += 2) {
+				if(kvs[i] == null) {
+					throw new NullPointerException("naturally ordered sorted maps do not support null keys");
+				}
+			}
+		}
+		return create(comparator, kvs, count, null);
+	}
+
+
+	/** Wrap arrays of keys which are already sorted and distinct, the arrays are not copied
+	 * @param comparator the comparator the keys are sorted by, or null if sorted by natural ordering
+	 * @param keys the sorted keys, only the first {@code size} are used
+	 * @param values the values, {@code values[i]} is associated with {@code keys[i]}
+	 */
+	static <K, V> SortedArrayMap<K, V> wrapSorted(Comparator<? super K> comparator, Object[] keys, Object[] values, int size) {
+		return new SortedArrayMap<>(keys, values, 0, size, comparator, null);
+	}
+
+
+	/** Create a naturally ordered sorted array map if all of the keys are instances of the same type and that type's natural ordering is consistent with {@code equals()}
+	 * @return the new map, or null if the keys are not all one of the supported key types
+	 */
+	static <K, V> SortedArrayMap<K, V> createIfComparable(Object[] kvs, int count) {
+		if(count == 0 || kvs[0] == null) {
+			return null;
+		}
+		Class<?> keyType = kvs[0].getClass();
+		if(!isAutoKeyType(keyType)) {
+			return null;
+		}
+		for(int i = 2; i < count * 2; i += 2) {
+			Object key = kvs[i];
+			if(key == null || key.getClass() != keyType) {
+				return null;
+			}
+		}
+		return create(null, kvs, count, keyType);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> SortedArrayMap<K, V> create(Comparator<? super K> comparator, Object[] kvs, int count, Class<?> keyType) {
+		Comparator<Object> keyComparator = comparator != null ? (Comparator<Object>)comparator : (a, b) -> ((Comparable<Object>)a).compareTo(b);
+		// a stable sort of pair indices keeps duplicate keys in input order, so the last duplicate is the one kept
+		Integer[] order = new Integer[count];
+		for(int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> keyComparator.compare(kvs[a * 2], kvs[b * 2]));
+
+		Object[] keys = new Object[count];
+		Object[] values = new Object[count];
+		int size = 0;
+		for(int j = 0; j < count; j++) {
+			int i = order[j] * 2;
+			if(size > 0 && keyComparator.compare(keys[size - 1], kvs[i]) == 0) {
+				values[size - 1] = kvs[i + 1];
+			}
+			else {
+				keys[size] = kvs[i];
+				values[size] = kvs[i + 1];
+				size++;
+			}
+		}
+		if(size < count) {
+			keys = Arrays.copyOf(keys, size);
+			values = Arrays.copyOf(values, size);
+		}
+		return new SortedArrayMap<>(keys, values, 0, size, comparator, keyType);
+	}
+
+
+	private static boolean isAutoKeyType(Class<?> type) {
+		for(Class<?> autoType : AUTO_KEY_TYPES) {
+			if(autoType == type) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/** A read-only view of the entries in key order
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			int i = indexOf(entry.getKey());
+			return i > -1 && Objects.equals(values[i], entry.getValue());
+		}
+
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+				private int next = from;
+
+				@Override
+				public boolean hasNext() {
+					return next < to;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Map.Entry<K, V> next() {
+					int i = next;
+					if(i >= to) {
+						throw new NoSuchElementException();
+					}
+					next = i + 1;
+					return new AbstractMap.SimpleImmutableEntry<>((K)keys[i], (V)values[i]);
+				}
+			};
+		}
+
+	}
+
+}
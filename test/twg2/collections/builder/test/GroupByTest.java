@@ -1,18 +1,36 @@
 package twg2.collections.builder.test;
 
+import java.io.IOException;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import twg2.collections.builder.CompactMultimap;
+import twg2.collections.builder.ElementCodec;
+import twg2.collections.builder.Equivalence;
 import twg2.collections.builder.GroupBy;
+import twg2.collections.builder.IntObjectHashMap;
+import twg2.collections.builder.LongObjectHashMap;
 import twg2.collections.builder.MapUtil;
+import twg2.collections.builder.Partition;
+import checks.CheckTask;
 
 /**
  * @author TeamworkGuy2
@@ -34,6 +52,18 @@ public class GroupByTest {
 	}
 
 
+	@Test
+	public void groupByListOrderedTest() {
+		List<String> values = Arrays.asList("charlie", "beta", "abc", "char", "alpha", "blue", "at", "back");
+		Assert.assertEquals(Arrays.asList(Arrays.asList("charlie", "char"), Arrays.asList("beta", "blue", "back"), Arrays.asList("abc", "alpha", "at")),
+				GroupBy.groupByListOrdered(values, (v) -> v.charAt(0), 0));
+		Assert.assertEquals(Arrays.asList(Arrays.asList("abc", "alpha", "at"), Arrays.asList("beta", "blue", "back"), Arrays.asList("charlie", "char")),
+				GroupBy.groupByListSorted(new LinkedList<>(values), (v) -> v.charAt(0), Comparator.naturalOrder(), 2));
+		Assert.assertEquals(Arrays.asList(Arrays.asList("charlie", "char"), Arrays.asList("beta", "blue", "back"), Arrays.asList("abc", "alpha", "at")),
+				GroupBy.groupByListSorted(values, (v) -> v.charAt(0), Comparator.reverseOrder(), 0));
+	}
+
+
 	@Test
 	public void groupByTest() {
 		Map<Character, List<String>> groups = GroupBy.groupBy(vals, (v) -> v.charAt(0), (a, b) -> a == b);
@@ -55,6 +85,224 @@ public class GroupByTest {
 	}
 
 
+	@Test
+	public void groupByEquivalenceTest() {
+		List<String> names = Arrays.asList("Alpha", "beta", "ALPHA", "Beta", "gamma", "alpha");
+
+		// hashed, keyed by the first key encountered, in encounter order
+		Map<String, List<String>> groups = GroupBy.groupByEquivalence(names, (v) -> v, Equivalence.caseInsensitive());
+		Assert.assertEquals(Arrays.asList("Alpha", "beta", "gamma"), new ArrayList<>(groups.keySet()));
+		Assert.assertEquals(Arrays.asList("Alpha", "ALPHA", "alpha"), groups.get("Alpha"));
+		Assert.assertEquals(Arrays.asList("beta", "Beta"), groups.get("beta"));
+
+		// sort and cluster, in key order
+		List<Double> nums = Arrays.asList(1.02, 3.5, 0.99, 3.49, 2.0, 1.0);
+		List<List<Double>> clusters = GroupBy.groupByListEquivalence(nums, (v) -> v, Equivalence.<Double>of((a, b) -> Math.abs(a - b) < 0.05, Comparator.naturalOrder()));
+		Assert.assertEquals(Arrays.asList(Arrays.asList(0.99, 1.0, 1.02), Arrays.asList(2.0), Arrays.asList(3.49, 3.5)), clusters);
+
+		Map<Integer, List<String>> byLength = GroupBy.groupByEquivalence(names, (v) -> v, Equivalence.comparing(Comparator.comparing(String::length))).entrySet().stream()
+				.collect(Collectors.toMap((e) -> e.getKey().length(), (e) -> e.getValue()));
+		Assert.assertEquals(Arrays.asList("beta", "Beta"), byLength.get(4));
+		Assert.assertEquals(Arrays.asList("Alpha", "ALPHA", "gamma", "alpha"), byLength.get(5));
+
+		// predicate only, sorted by natural ordering and clustered
+		List<List<String>> prefixes = GroupBy.groupByListEquivalence(names, (v) -> v, Equivalence.<String>of((a, b) -> a.charAt(0) == b.charAt(0)));
+		Assert.assertEquals(Arrays.asList(Arrays.asList("ALPHA", "Alpha"), Arrays.asList("Beta"), Arrays.asList("alpha"), Arrays.asList("beta"), Arrays.asList("gamma")), prefixes);
+
+		Map<String, List<String>> ignoreCase = GroupBy.groupByEquivalence(Arrays.asList("Abc", "abc", "x", "ABC"), (v) -> v, Equivalence.<String>of(String::equalsIgnoreCase));
+		Assert.assertEquals(Arrays.asList(Arrays.asList("ABC", "Abc", "abc"), Arrays.asList("x")), new ArrayList<>(ignoreCase.values()));
+
+		// groups which the equivalence keeps apart but whose keys are equal() are merged in the map
+		List<String> prefixed = Arrays.asList("abc1", "abc2", "abd3");
+		Map<String, List<String>> byIdentity = GroupBy.groupByEquivalence(prefixed, (v) -> v.substring(0, 3), Equivalence.identity());
+		Assert.assertEquals(Arrays.asList("abc", "abd"), new ArrayList<>(byIdentity.keySet()));
+		Assert.assertEquals(Arrays.asList("abc1", "abc2"), byIdentity.get("abc"));
+		Assert.assertEquals(Arrays.asList(Arrays.asList("abc1"), Arrays.asList("abc2"), Arrays.asList("abd3")),
+				GroupBy.groupByListEquivalence(prefixed, (v) -> v.substring(0, 3), Equivalence.identity()));
+	}
+
+
+	@Test
+	public void groupByLegacyPredicateTest() {
+		// the legacy BiPredicate overloads group by hashCode() and equals(), the same as before equivalences were added
+		String a1 = new String("a");
+		String a2 = new String("a");
+		Assert.assertEquals(1, GroupBy.groupByList(Arrays.asList(a1, a2, a1), (v) -> v, (x, y) -> x == y).size());
+		Assert.assertEquals(1, GroupBy.groupByList(Arrays.asList(a1, a2, a1), (v) -> v, null).size());
+
+		List<Integer> boxed = Arrays.asList(new Integer(1000), new Integer(2000), new Integer(1000));
+		Map<Integer, List<Integer>> groups = GroupBy.groupBy(boxed, (v) -> v, (x, y) -> x == y);
+		Assert.assertEquals(2, groups.size());
+		Assert.assertEquals(Arrays.asList(1000, 1000), groups.get(1000));
+		Assert.assertEquals(Arrays.asList(2000), groups.get(2000));
+
+		Map<String, List<String>> prefixes = GroupBy.groupBy(Arrays.asList("abc1", "abc2", "abd3"), (v) -> v.substring(0, 3), (x, y) -> x == y);
+		Assert.assertEquals(Arrays.asList("abc1", "abc2"), prefixes.get("abc"));
+		Assert.assertEquals(Arrays.asList("abd3"), prefixes.get("abd"));
+
+		Assert.assertEquals(4, GroupBy.groupBy(Arrays.asList("Abc", "abc", "ABC", "x"), (v) -> v, String::equalsIgnoreCase).size());
+	}
+
+
+	@Test
+	public void groupByParallelTest() {
+		List<Integer> values = new ArrayList<>();
+		for(int i = 0; i < 100000; i++) {
+			values.add((i * 7919) % 100003);
+		}
+		Function<Integer, Integer> key = (v) -> v % 10 == 9 ? null : v % 1000;
+		Map<Integer, List<Integer>> expect = GroupBy.groupBy(values, key, null);
+
+		Map<Integer, List<Integer>> res = GroupBy.groupByParallel(values, key);
+		Assert.assertEquals(expect, res);
+		Assert.assertEquals(new ArrayList<>(expect.keySet()), new ArrayList<>(res.keySet()));
+
+		res = GroupBy.groupByParallel(new LinkedList<>(values), key);
+		Assert.assertEquals(new ArrayList<>(expect.entrySet()), new ArrayList<>(res.entrySet()));
+
+		res = GroupBy.groupByParallel(values.stream().spliterator(), key);
+		Assert.assertEquals(new ArrayList<>(expect.entrySet()), new ArrayList<>(res.entrySet()));
+	}
+
+
+	@Test
+	public void groupByAggregateTest() {
+		Function<String, Character> first = (v) -> v.charAt(0);
+
+		Assert.assertEquals(Arrays.asList(pair('a', 3L), pair('b', 3L), pair('c', 2L)), new ArrayList<>(GroupBy.countBy(vals, first).entrySet()));
+		Assert.assertEquals(Arrays.asList(pair('a', 10L), pair('b', 12L), pair('c', 11L)), new ArrayList<>(GroupBy.sumBy(vals, first, String::length).entrySet()));
+		Assert.assertEquals(Arrays.asList(pair('a', 10.0), pair('b', 12.0), pair('c', 11.0)), new ArrayList<>(GroupBy.sumDoubleBy(vals, first, String::length).entrySet()));
+
+		Comparator<String> byLength = Comparator.comparing(String::length);
+		Assert.assertEquals(Arrays.asList(pair('a', "at"), pair('b', "beta"), pair('c', "char")), new ArrayList<>(GroupBy.minBy(vals, first, byLength).entrySet()));
+		Assert.assertEquals(Arrays.asList(pair('a', "alpha"), pair('b', "beta"), pair('c', "charlie")), new ArrayList<>(GroupBy.maxBy(vals, first, byLength).entrySet()));
+		Assert.assertEquals(Arrays.asList(pair('a', "abc"), pair('b', "beta"), pair('c', "charlie")), new ArrayList<>(GroupBy.firstBy(vals, first).entrySet()));
+		Assert.assertEquals(Arrays.asList(pair('a', "alpha"), pair('b', "back"), pair('c', "char")), new ArrayList<>(GroupBy.lastBy(vals, first).entrySet()));
+		// a group reduced to null is still a group
+		Map<Integer, String> reduced = GroupBy.reduceBy(Arrays.asList("a", "b", "c", "dd"), String::length, (x, y) -> x == null ? "null:" + y : null);
+		Assert.assertEquals("null:c", reduced.get(1));
+		Assert.assertEquals("dd", reduced.get(2));
+
+		Map<Character, String> joined = GroupBy.groupByCollecting(vals, first, Collectors.joining(","));
+		Assert.assertEquals("abc,at,alpha", joined.get('a'));
+		Assert.assertEquals("charlie,char", joined.get('c'));
+
+		Map<Character, List<String>> lists = GroupBy.groupByCollecting(vals.iterator(), first, Collectors.toList());
+		Assert.assertEquals(GroupBy.groupBy(vals, first, null), lists);
+	}
+
+
+	@Test
+	public void groupRunsTest() {
+		List<Entry<Character, List<String>>> runs = new ArrayList<>();
+		long count = GroupBy.groupRuns(Arrays.asList("ab", "ac", "b", null, "bb", "aa"), (v) -> v != null ? v.charAt(0) : null, null, (k, g) -> runs.add(pair(k, g)));
+		Assert.assertEquals(3, count);
+		Assert.assertEquals(Arrays.asList(pair('a', Arrays.asList("ab", "ac")), pair('b', Arrays.asList("b", "bb")), pair('a', Arrays.asList("aa"))), runs);
+
+		List<Entry<Character, List<String>>> sorted = new ArrayList<>();
+		Assert.assertEquals(3, GroupBy.groupSorted(vals, (v) -> v.charAt(0), Comparator.naturalOrder(), (k, g) -> sorted.add(pair(k, g))));
+		Assert.assertEquals(Arrays.asList(pair('a', Arrays.asList("abc", "at", "alpha")), pair('b', Arrays.asList("beta", "blue", "back")), pair('c', Arrays.asList("charlie", "char"))), sorted);
+
+		List<Character> emitted = new ArrayList<>();
+		CheckTask.assertException(() -> GroupBy.groupSorted(Arrays.asList("a", "b", "a"), (v) -> v.charAt(0), Comparator.naturalOrder(), (k, g) -> emitted.add(k)));
+		Assert.assertEquals(Arrays.asList('a'), emitted);
+	}
+
+
+	@Test
+	public void groupByPrimitiveKeyTest() {
+		EnumMap<RetentionPolicy, List<String>> byEnum = GroupBy.groupByEnum(vals, RetentionPolicy.class, (v) -> v.length() > 4 ? RetentionPolicy.RUNTIME : (v.length() > 3 ? null : RetentionPolicy.SOURCE));
+		Assert.assertEquals(Arrays.asList(RetentionPolicy.SOURCE, RetentionPolicy.RUNTIME), new ArrayList<>(byEnum.keySet()));
+		Assert.assertEquals(Arrays.asList("abc", "at"), byEnum.get(RetentionPolicy.SOURCE));
+		Assert.assertEquals(Arrays.asList("alpha", "charlie"), byEnum.get(RetentionPolicy.RUNTIME));
+
+		IntObjectHashMap<List<String>> byInt = GroupBy.groupByInt(vals, String::length);
+		Assert.assertEquals(5, byInt.size());
+		Assert.assertEquals(Arrays.asList("beta", "blue", "back", "char"), byInt.get(4));
+		Assert.assertEquals(Arrays.asList("at"), byInt.get(2));
+		Assert.assertNull(byInt.get(0));
+
+		LongObjectHashMap<List<Integer>> byLong = GroupBy.groupByLong(Arrays.asList(1, 2, 3, 4, 5, 6), (v) -> (v % 3) * 0x100000000L);
+		Assert.assertEquals(Arrays.asList(3, 6), byLong.get(0));
+		Assert.assertEquals(Arrays.asList(1, 4), byLong.get(0x100000000L));
+		Assert.assertEquals(Arrays.asList(2, 5), byLong.get(0x200000000L));
+	}
+
+
+	@Test
+	public void groupByExternalTest() throws IOException {
+		List<String> values = new ArrayList<>();
+		for(int i = 0; i < 20000; i++) {
+			values.add("key" + (i * 7) % 1500 + "-" + i);
+		}
+		Function<String, String> key = (v) -> v.substring(0, v.indexOf('-'));
+		Map<String, List<String>> expect = GroupBy.groupBy(values, key, null);
+
+		Path tempDir = Files.createTempDirectory("group-by-test");
+		try {
+			Map<String, List<String>> res = new HashMap<>();
+			long count = GroupBy.groupByExternal(values.iterator(), key, ElementCodec.utf8(), 4096, tempDir, (k, g) -> Assert.assertNull(res.put(k, g)));
+			Assert.assertEquals(1500, count);
+			Assert.assertEquals(expect, res);
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.delete(tempDir);
+		}
+
+		Map<Integer, List<Integer>> small = new HashMap<>();
+		Assert.assertEquals(2, GroupBy.groupByExternal(Arrays.asList(1, 2, 3, 4).iterator(), (v) -> v % 2, ElementCodec.ints(), 1 << 20, null, (k, g) -> small.put(k, g)));
+		Assert.assertEquals(Arrays.asList(1, 3), small.get(1));
+	}
+
+
+	@Test
+	public void topKAndPartitionTest() {
+		List<Integer> values = Arrays.asList(5, 12, 3, 8, 21, 7, 14, 1, 30, 9);
+		Map<Integer, List<Integer>> top = GroupBy.topKBy(values, (v) -> v % 2, Comparator.naturalOrder(), 3);
+		Assert.assertEquals(Arrays.asList(1, 0), new ArrayList<>(top.keySet()));
+		Assert.assertEquals(Arrays.asList(21, 9, 7), top.get(1));
+		Assert.assertEquals(Arrays.asList(30, 14, 12), top.get(0));
+		Assert.assertEquals(Arrays.asList(30, 14, 12, 8), GroupBy.topKBy(values, (v) -> v % 2, Comparator.naturalOrder(), 10).get(0));
+		CheckTask.assertException(() -> GroupBy.topKBy(values, (v) -> v, Comparator.naturalOrder(), 0));
+
+		// the first encountered of equal values are kept and listed in encounter order
+		Comparator<String> byScore = Comparator.comparing((String v) -> v.substring(v.indexOf(':') + 1));
+		List<String> scores = Arrays.asList("a:1", "b:1", "c:2", "d:1", "e:2", "f:0");
+		Assert.assertEquals(Arrays.asList("c:2", "a:1"), GroupBy.topKBy(scores.subList(0, 3), (v) -> "g", byScore, 2).get("g"));
+		Assert.assertEquals(Arrays.asList("c:2", "e:2", "a:1", "b:1"), GroupBy.topKBy(scores, (v) -> "g", byScore, 4).get("g"));
+		Assert.assertEquals(Arrays.asList("c:2", "e:2", "a:1", "b:1", "d:1", "f:0"), GroupBy.topKBy(scores, (v) -> "g", byScore, 10).get("g"));
+
+		Partition<String> parts = GroupBy.partition(vals, (v) -> v.length() > 3);
+		Assert.assertEquals(Arrays.asList("alpha", "beta", "blue", "back", "charlie", "char"), parts.getMatching());
+		Assert.assertEquals(Arrays.asList("abc", "at"), parts.getNonMatching());
+	}
+
+
+	@Test
+	public void groupByCompactTest() {
+		CompactMultimap<Character, String> res = GroupBy.groupByCompact(vals, (v) -> v.startsWith("ch") ? null : v.charAt(0));
+		Assert.assertEquals(6, res.size());
+		Assert.assertEquals(2, res.groupCount());
+		Assert.assertEquals(Arrays.asList('a', 'b'), res.keys());
+		Assert.assertEquals(Arrays.asList("abc", "at", "alpha"), res.get('a'));
+		Assert.assertEquals(Arrays.asList("beta", "blue", "back"), res.getGroup(1));
+		Assert.assertNull(res.get('c'));
+		Assert.assertEquals(-1, res.indexOf(null));
+		Assert.assertEquals(GroupBy.groupByListOrdered(vals.subList(0, 6), (v) -> v.charAt(0), 0), new ArrayList<>(res.asMap().values()));
+		CheckTask.assertException(() -> res.get('a').set(0, "a"));
+
+		List<Integer> values = new ArrayList<>();
+		for(int i = 0; i < 5000; i++) {
+			values.add(i);
+		}
+		CompactMultimap<Integer, Integer> mod = GroupBy.groupByCompact(values, (v) -> v % 97);
+		Assert.assertEquals(97, mod.groupCount());
+		Assert.assertEquals(GroupBy.groupBy(values, (v) -> v % 97, null), mod.asMap());
+	}
+
+
 	private static final <K, V> Entry<K, V> pair(K k, V v) {
 		return new AbstractMap.SimpleImmutableEntry<>(k, v);
 	}
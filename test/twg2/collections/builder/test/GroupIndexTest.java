@@ -0,0 +1,54 @@
+package twg2.collections.builder.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.collections.builder.GroupBy;
+import twg2.collections.builder.GroupIndex;
+import checks.CheckTask;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class GroupIndexTest {
+
+	@Test
+	public void groupIndexTest() {
+		GroupIndex<String, Character> index = GroupBy.index(Arrays.asList("abc", "at", "beta", "at", "char"), (v) -> v.charAt(0));
+		Assert.assertEquals(5, index.size());
+		Assert.assertEquals(3, index.groupCount());
+		Assert.assertEquals(Collections.emptySet(), index.changedKeys());
+		Assert.assertEquals(Arrays.asList("abc", "at", "at"), new ArrayList<>(index.getGroup('a')));
+
+		Collection<String> groupA = index.getGroup('a');
+		CheckTask.assertException(() -> groupA.add("a"));
+		CheckTask.assertException(() -> groupA.clear());
+
+		index.add("alpha");
+		Assert.assertTrue(index.remove("at"));
+		Assert.assertFalse(index.remove("back"));
+		Assert.assertEquals(Arrays.asList("abc", "at", "alpha"), new ArrayList<>(groupA));
+		Assert.assertEquals(new LinkedHashSet<>(Arrays.asList('a')), index.checkpoint());
+
+		// move a value to a new group, then empty the old group
+		Assert.assertTrue(index.update("beta", "delta"));
+		Assert.assertNull(index.getGroup('b'));
+		Assert.assertEquals(Arrays.asList('a', 'c', 'd'), new ArrayList<>(index.keySet()));
+		Assert.assertEquals(new LinkedHashSet<>(Arrays.asList('b', 'd')), index.checkpoint());
+
+		StringBuilder mutable = new StringBuilder("cat");
+		GroupIndex<StringBuilder, Character> sbIndex = GroupBy.index(Arrays.asList(mutable), (v) -> v.charAt(0));
+		mutable.setCharAt(0, 'b');
+		Assert.assertTrue(sbIndex.rekey(mutable, 'c'));
+		Assert.assertEquals(Arrays.asList('b'), new ArrayList<>(sbIndex.keySet()));
+		Assert.assertEquals(1, sbIndex.asMap().get('b').size());
+	}
+
+}
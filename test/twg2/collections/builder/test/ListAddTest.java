@@ -2,15 +2,20 @@ package twg2.collections.builder.test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import twg2.collections.builder.AddCondition;
+import twg2.collections.builder.AddStats;
+import twg2.collections.builder.IntArrayList;
 import twg2.collections.builder.ListAdd;
 import twg2.collections.builder.ListUtil;
+import twg2.collections.builder.LongArrayList;
 import checks.CheckTask;
 
 /**
@@ -59,4 +64,124 @@ public class ListAddTest {
 		}
 	}
 
+
+	@Test
+	public void listAddStatsTest() {
+		ArrayList<String> strs = new ArrayList<>(Arrays.asList("a"));
+		int[] listenerCounts = new int[3];
+		ListAdd.setStatsListener((added, skippedNull, skippedDuplicate, nanos) -> {
+			listenerCounts[0] += added;
+			listenerCounts[1] += skippedNull;
+			listenerCounts[2] += skippedDuplicate;
+		});
+		try {
+			AddStats stats = ListAdd.addToList(new String[] { "a", "b", null, "b", "c", null }, strs, AddCondition.NO_NULL_OR_CONTAINS, null);
+			Assert.assertEquals(Arrays.asList("a", "b", "c"), strs);
+			Assert.assertEquals(2, stats.getAdded());
+			Assert.assertEquals(2, stats.getSkippedNull());
+			Assert.assertEquals(2, stats.getSkippedDuplicate());
+			Assert.assertEquals(1, stats.getCalls());
+
+			// reuse the stats object, counts accumulate
+			ListAdd.addToList(new LinkedList<>(Arrays.asList("d", null, "a")), strs, AddCondition.NO_CONTAINS, stats);
+			Assert.assertEquals(Arrays.asList("a", "b", "c", "d", null), strs);
+			Assert.assertEquals(4, stats.getAdded());
+			Assert.assertEquals(3, stats.getSkippedDuplicate());
+			Assert.assertEquals(2, stats.getCalls());
+
+			// counts are recorded up to the point of an error
+			stats.reset();
+			CheckTask.assertException(() -> ListAdd.addToList(Arrays.asList("e", "a"), strs, AddCondition.ERROR_CONTAINS, stats));
+			Assert.assertEquals(1, stats.getAdded());
+			Assert.assertEquals(0, stats.getSkipped());
+
+			Assert.assertEquals(5, listenerCounts[0]);
+			Assert.assertEquals(2, listenerCounts[1]);
+			Assert.assertEquals(3, listenerCounts[2]);
+		} finally {
+			ListAdd.setStatsListener(null);
+		}
+	}
+
+
+	@Test
+	public void listAddPrimitiveTest() {
+		IntArrayList ints = IntArrayList.of(5, 0);
+		Assert.assertFalse(ListAdd.addToList(new int[] { 1, 0, 2, 1, 5, 3 }, ints, AddCondition.NO_CONTAINS));
+		Assert.assertArrayEquals(new int[] { 5, 0, 1, 2, 3 }, ints.toArray());
+
+		Assert.assertTrue(ListAdd.addToList(new int[] { 3, 3 }, ints, AddCondition.ADD_ALL));
+		Assert.assertEquals(IntArrayList.of(5, 0, 1, 2, 3, 3, 3), ints);
+
+		CheckTask.assertException(() -> ListAdd.addToList(new int[] { 9, 8, 0 }, ints, AddCondition.ERROR_NULL_OR_CONTAINS));
+		Assert.assertEquals(9, ints.size());
+		Assert.assertEquals(8, ints.get(8));
+
+		// enough values to resize the duplicate check set several times
+		long[] longs = new long[2000];
+		for(int i = 0; i < longs.length; i++) {
+			longs[i] = (i % 1000) * 0x100000000L;
+		}
+		LongArrayList copy = ListAdd.copyLongs(longs, AddCondition.NO_NULL_OR_CONTAINS);
+		Assert.assertEquals(1000, copy.size());
+		for(int i = 0; i < copy.size(); i++) {
+			Assert.assertEquals(i * 0x100000000L, copy.get(i));
+		}
+
+		Assert.assertEquals(2000, ListAdd.copyLongs(longs, AddCondition.ADD_ALL).size());
+		Assert.assertEquals(IntArrayList.of(1, 2), ListAdd.copyInts(new int[] { 1, 2, 1 }, AddCondition.NO_CONTAINS));
+		Assert.assertEquals(0, ListAdd.copyInts(null, AddCondition.ADD_ALL).size());
+		// the primitive overloads have distinct names so a null source still resolves to copy(Iterable, AddCondition)
+		Assert.assertEquals(0, ListAdd.copy(null, AddCondition.ADD_ALL).size());
+	}
+
+
+	@Test
+	public void copyParallelTest() {
+		List<Integer> values = new ArrayList<>();
+		for(int i = 0; i < 50000; i++) {
+			values.add(i % 7 == 0 ? null : (i * 31) % 20011);
+		}
+
+		for(AddCondition cond : new AddCondition[] { AddCondition.ADD_ALL, AddCondition.NO_NULL, AddCondition.NO_CONTAINS, AddCondition.NO_NULL_OR_CONTAINS }) {
+			List<Integer> expect = ListAdd.copy(values, cond);
+			Assert.assertEquals(expect, ListAdd.copyParallel(values, cond));
+			Assert.assertEquals(expect, ListAdd.copyParallel(values.spliterator(), cond));
+			Assert.assertEquals(expect, ListAdd.copyParallel(new LinkedList<>(values).spliterator(), cond));
+		}
+
+		CheckTask.assertException(() -> ListAdd.copyParallel(values, AddCondition.ERROR_NULL));
+		CheckTask.assertException(() -> ListAdd.copyParallel(values, AddCondition.ERROR_CONTAINS));
+
+		List<Integer> unique = new ArrayList<>();
+		for(int i = 0; i < 20000; i++) {
+			unique.add(i);
+		}
+		Assert.assertEquals(unique, ListAdd.copyParallel(unique, AddCondition.ERROR_NULL_OR_CONTAINS));
+		Assert.assertEquals(Arrays.asList(3, 1, 2), ListAdd.copyParallel(Arrays.asList(3, 1, 3, 2, 1), AddCondition.NO_CONTAINS));
+	}
+
+
+	@Test
+	public void addSortedTest() {
+		Comparator<Integer> cmp = Comparator.naturalOrder();
+		ArrayList<Integer> list = new ArrayList<>(Arrays.asList(2, 4, 4, 9));
+
+		Assert.assertTrue(ListAdd.addToList(Arrays.asList(1, 4, 5, 10, 11), list, cmp, AddCondition.ADD_ALL));
+		Assert.assertEquals(Arrays.asList(1, 2, 4, 4, 4, 5, 9, 10, 11), list);
+
+		Assert.assertFalse(ListAdd.addToList(Arrays.asList(0, 0, 3, 4, 12, 12, null), list, cmp, AddCondition.NO_NULL_OR_CONTAINS));
+		Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 4, 4, 5, 9, 10, 11, 12), list);
+
+		// errors leave the destination unmodified
+		CheckTask.assertException(() -> ListAdd.addToList(Arrays.asList(6, 9), list, cmp, AddCondition.ERROR_CONTAINS));
+		CheckTask.assertException(() -> ListAdd.addToList(Arrays.asList(8, 7), list, cmp, AddCondition.ADD_ALL));
+		Assert.assertEquals(12, list.size());
+
+		LinkedList<String> strs = new LinkedList<>(Arrays.asList("b", "d"));
+		Assert.assertTrue(ListAdd.addToList(new HashSet<>(Arrays.asList("e")), strs, Comparator.naturalOrder(), AddCondition.NO_CONTAINS));
+		Assert.assertTrue(ListAdd.addToList(Arrays.asList(null, "a", "c"), strs, Comparator.nullsFirst(Comparator.naturalOrder()), AddCondition.NO_CONTAINS));
+		Assert.assertEquals(Arrays.asList(null, "a", "b", "c", "d", "e"), strs);
+	}
+
 }
@@ -1,21 +1,35 @@
 package twg2.collections.builder.test;
 
+import java.io.IOException;
 import java.lang.annotation.RetentionPolicy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import twg2.collections.builder.BiMap;
+import twg2.collections.builder.ElementCodec;
 import twg2.collections.builder.MapBuilder;
 import checks.CheckTask;
 
@@ -50,6 +64,119 @@ public final class MapBuilderTest {
 	}
 
 
+	@Test
+	public void immutableArrayMapTest() {
+		Map<String, String> small = MapBuilder.immutable(pair("a", "1"), pair(null, "n"), pair("b", null), pair("a", "2"));
+		Assert.assertEquals(3, small.size());
+		Assert.assertEquals("2", small.get("a"));
+		Assert.assertEquals("n", small.get(null));
+		Assert.assertTrue(small.containsKey("b"));
+		Assert.assertNull(small.get("c"));
+		Assert.assertTrue(small.containsValue(null));
+		Map<String, String> expect = new HashMap<>();
+		expect.put("a", "2");
+		expect.put(null, "n");
+		expect.put("b", null);
+		Assert.assertEquals(expect, small);
+		Assert.assertEquals(expect.hashCode(), small.hashCode());
+		CheckTask.assertException(() -> small.put("c", "3"));
+		CheckTask.assertException(() -> small.remove("a"));
+		CheckTask.assertException(() -> small.entrySet().iterator().next().setValue("x"));
+
+		List<Entry<Integer, String>> entries = new ArrayList<>();
+		Map<Integer, String> expectLarge = new HashMap<>();
+		for(int i = 0; i < 200; i++) {
+			entries.add(pair(i % 150, "v" + i));
+			expectLarge.put(i % 150, "v" + i);
+		}
+		entries.add(pair(null, null));
+		expectLarge.put(null, null);
+		Map<Integer, String> large = MapBuilder.of(entries);
+		Assert.assertEquals(151, large.size());
+		Assert.assertEquals(expectLarge, large);
+		Assert.assertEquals(large, expectLarge);
+		Assert.assertEquals("v199", large.get(49));
+		Assert.assertTrue(large.containsKey(null));
+		Assert.assertFalse(large.containsKey(150));
+		CheckTask.assertException(() -> large.clear());
+	}
+
+
+	@Test
+	public void sortedArrayMapTest() {
+		List<Entry<Integer, String>> entries = new ArrayList<>();
+		TreeMap<Integer, String> expect = new TreeMap<>();
+		for(int i = 0; i < 40; i++) {
+			int key = (i * 17) % 30;
+			entries.add(pair(key, "v" + i));
+			expect.put(key, "v" + i);
+		}
+		SortedMap<Integer, String> sorted = MapBuilder.immutableSorted(entries);
+		Assert.assertEquals(30, sorted.size());
+		Assert.assertEquals(expect, sorted);
+		Assert.assertEquals(new ArrayList<>(expect.keySet()), new ArrayList<>(sorted.keySet()));
+		Assert.assertEquals("v24", sorted.get(18));
+		Assert.assertNull(sorted.get(30));
+		Assert.assertEquals(Integer.valueOf(0), sorted.firstKey());
+		Assert.assertEquals(Integer.valueOf(29), sorted.lastKey());
+		Assert.assertEquals(expect.subMap(5, 12), sorted.subMap(5, 12));
+		Assert.assertEquals(expect.headMap(7), sorted.headMap(7));
+		Assert.assertEquals(expect.tailMap(25), sorted.tailMap(25));
+		Assert.assertEquals(Arrays.asList(8, 9), new ArrayList<>(sorted.tailMap(8).headMap(10).keySet()));
+		Assert.assertTrue(sorted.subMap(40, 50).isEmpty());
+		Assert.assertNull(sorted.headMap(10).get(12));
+		CheckTask.assertException(() -> sorted.subMap(12, 5));
+		CheckTask.assertException(() -> sorted.headMap(0).firstKey());
+		CheckTask.assertException(() -> sorted.put(1, "a"));
+		CheckTask.assertException(() -> MapBuilder.immutableSorted(Arrays.asList(pair("a", "1"), pair((String)null, "2"))));
+
+		SortedMap<String, Integer> reversed = MapBuilder.immutableSorted(String.CASE_INSENSITIVE_ORDER.reversed(), Arrays.asList(pair("a", 1), pair("B", 2), pair("A", 3)));
+		Assert.assertEquals(Arrays.asList("B", "a"), new ArrayList<>(reversed.keySet()));
+		Assert.assertEquals(Integer.valueOf(3), reversed.get("A"));
+
+		// small maps of String or boxed integer keys are sorted array maps, lookups with other key types are misses
+		Map<Integer, String> detected = MapBuilder.immutable(entries);
+		Assert.assertTrue(detected instanceof SortedMap);
+		Assert.assertEquals(expect, detected);
+		Assert.assertNull(detected.get(null));
+		Assert.assertNull(detected.get(5L));
+		Assert.assertFalse(detected.containsKey("5"));
+		Assert.assertFalse(MapBuilder.immutable(entries.subList(0, 8)) instanceof SortedMap);
+		entries.add(pair(null, "n"));
+		Assert.assertFalse(MapBuilder.immutable(entries) instanceof SortedMap);
+	}
+
+
+	@Test
+	public void enumKeyedMaps() {
+		Map<RetentionPolicy, String> detected = MapBuilder.immutable(pair(RetentionPolicy.RUNTIME, "r"), pair(RetentionPolicy.SOURCE, "s"), pair(RetentionPolicy.RUNTIME, null));
+		Assert.assertEquals(Arrays.asList(RetentionPolicy.SOURCE, RetentionPolicy.RUNTIME), new ArrayList<>(detected.keySet()));
+		Assert.assertTrue(detected.containsKey(RetentionPolicy.RUNTIME));
+		Assert.assertNull(detected.get(RetentionPolicy.RUNTIME));
+		Assert.assertFalse(detected.containsKey(RetentionPolicy.CLASS));
+		Assert.assertFalse(detected.containsKey("SOURCE"));
+		Map<RetentionPolicy, String> expect = new EnumMap<>(RetentionPolicy.class);
+		expect.put(RetentionPolicy.SOURCE, "s");
+		expect.put(RetentionPolicy.RUNTIME, null);
+		Assert.assertEquals(expect, detected);
+		Assert.assertEquals(expect.hashCode(), detected.hashCode());
+		CheckTask.assertException(() -> detected.put(RetentionPolicy.CLASS, "c"));
+
+		Map<RetentionPolicy, String> explicit = MapBuilder.immutable(RetentionPolicy.class, Arrays.asList(pair(RetentionPolicy.CLASS, "c")));
+		Assert.assertEquals("c", explicit.get(RetentionPolicy.CLASS));
+		Assert.assertEquals(1, explicit.size());
+		Assert.assertTrue(MapBuilder.immutable(RetentionPolicy.class, Collections.<Entry<RetentionPolicy, String>>emptyList()).isEmpty());
+
+		EnumMap<RetentionPolicy, String> mutable = MapBuilder.mutable(RetentionPolicy.class, Arrays.asList(pair(RetentionPolicy.CLASS, "c"), pair(RetentionPolicy.SOURCE, "s")));
+		EnumMap<RetentionPolicy, String> combined = MapBuilder.concat(RetentionPolicy.class, mutable, detected);
+		Assert.assertEquals(Arrays.asList("s", "c", null), new ArrayList<>(combined.values()));
+
+		Map<String, RetentionPolicy> byName = new HashMap<>(MapBuilder.immutableEnumNames(RetentionPolicy.class));
+		EnumMap<RetentionPolicy, String> inverted = MapBuilder.invert(RetentionPolicy.class, byName);
+		Assert.assertEquals(Arrays.asList("SOURCE", "CLASS", "RUNTIME"), new ArrayList<>(inverted.values()));
+	}
+
+
 	@Test
 	public void mutableTest() {
 		Map<String, String> map = MapBuilder.mutable(Arrays.asList(list1));
@@ -75,6 +202,60 @@ public final class MapBuilderTest {
 	}
 
 
+	@Test
+	public void mutableParallelTest() {
+		List<String> keys = new ArrayList<>();
+		List<Integer> values = new ArrayList<>();
+		for(int i = 0; i < 50000; i++) {
+			keys.add("k" + (i % 40000));
+			values.add(i);
+		}
+		Map<String, Integer> expect = MapBuilder.mutable(keys, values, false);
+		Assert.assertEquals(40000, expect.size());
+		Assert.assertEquals(expect, MapBuilder.mutableParallel(keys, values, false));
+		Assert.assertEquals(Integer.valueOf(45000), MapBuilder.mutableParallel(keys, values, false).get("k5000"));
+		Assert.assertEquals(expect, MapBuilder.mutableParallel(new LinkedList<>(keys), values, false));
+
+		// the first key which duplicates an earlier key, in source order, is reported
+		List<String> dupKeys = new ArrayList<>(keys.subList(0, 40000));
+		dupKeys.set(30000, "k20000");
+		dupKeys.set(35000, "k10");
+		dupKeys.set(39999, "k12345");
+		try {
+			MapBuilder.mutableParallel(dupKeys, values.subList(0, 40000), true);
+			Assert.fail("expected duplicate key");
+		} catch(IllegalArgumentException e) {
+			Assert.assertEquals("duplicate key encountered while building map: k20000", e.getMessage());
+		}
+		Map<String, Integer> unique = MapBuilder.mutableParallel(keys.subList(0, 40000), values.subList(0, 40000), true);
+		Assert.assertEquals(MapBuilder.mutable(keys.subList(0, 40000), values.subList(0, 40000), true), unique);
+		Assert.assertEquals(2, MapBuilder.mutableParallel(Arrays.asList("a", "b"), Arrays.asList(1, 2), true).size());
+		CheckTask.assertException(() -> MapBuilder.mutableParallel(Arrays.asList("a", "a"), Arrays.asList(1, 2), true));
+		CheckTask.assertException(() -> MapBuilder.mutableParallel(keys, values.subList(1, 10), false));
+		dupKeys.set(30000, null);
+		CheckTask.assertException(() -> MapBuilder.mutableParallel(dupKeys, values.subList(0, 40000), false));
+	}
+
+
+	@Test
+	public void mutableParallelScalingTest() throws Exception {
+		// every partition task adds its entries to the result itself, so the work is spread across the pool's threads
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		List<ThreadTrackingKey> keys = new ArrayList<>();
+		for(int i = 0; i < 1 << 16; i++) {
+			keys.add(new ThreadTrackingKey(i, threads));
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Map<ThreadTrackingKey, ThreadTrackingKey> res = pool.submit(() -> MapBuilder.mutableParallel(keys, keys, true)).get();
+			Assert.assertEquals(keys.size(), res.size());
+			Assert.assertTrue("expected work on more than one thread, threads: " + threads, threads.size() > 1);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
 	@Test
 	public void concatMaps() {
 		Map<String, String> all = new HashMap<>();
@@ -100,6 +281,47 @@ public final class MapBuilderTest {
 	}
 
 
+	@Test
+	public void concatParallelAndSorted() {
+		List<Map<Integer, String>> maps = new ArrayList<>();
+		for(int m = 0; m < 20; m++) {
+			Map<Integer, String> map = new HashMap<>();
+			for(int i = 0; i < 1000; i++) {
+				map.put(i * (m % 3 + 1), m + ":" + i);
+			}
+			maps.add(map);
+		}
+		Map<Integer, String> expect = MapBuilder.concat(maps);
+		Assert.assertEquals(expect, MapBuilder.concatParallel(maps));
+		Assert.assertEquals(MapBuilder.concat(maps.subList(0, 2)), MapBuilder.concatParallel(maps.subList(0, 2)));
+		Map<Integer, String> withNull = new HashMap<>();
+		withNull.put(null, "n");
+		CheckTask.assertException(() -> MapBuilder.concatParallel(Arrays.asList(maps.get(0), withNull)));
+
+		List<TreeMap<Integer, String>> sorted = new ArrayList<>();
+		for(Map<Integer, String> map : maps) {
+			sorted.add(new TreeMap<>(map));
+		}
+		TreeMap<Integer, String> merged = MapBuilder.concatSorted(sorted);
+		Assert.assertEquals(expect, merged);
+		Assert.assertEquals(new ArrayList<>(new TreeMap<>(expect).keySet()), new ArrayList<>(merged.keySet()));
+
+		TreeMap<String, String> a = new TreeMap<>(Comparator.reverseOrder());
+		a.put("x", "a");
+		a.put("y", "a");
+		TreeMap<String, String> b = new TreeMap<>(Comparator.reverseOrder());
+		b.put("x", "b");
+		b.put("z", "b");
+		TreeMap<String, String> ab = MapBuilder.concatSorted(Arrays.asList(a, b));
+		Assert.assertEquals(Arrays.asList("z", "y", "x"), new ArrayList<>(ab.keySet()));
+		Assert.assertEquals("b", ab.get("x"));
+		Assert.assertEquals(Arrays.asList("y", "x"), new ArrayList<>(ab.tailMap("y").keySet()));
+		Assert.assertSame(Comparator.reverseOrder(), ab.comparator());
+		Assert.assertTrue(MapBuilder.concatSorted(Collections.<TreeMap<String, String>>emptyList()).isEmpty());
+		CheckTask.assertException(() -> MapBuilder.concatSorted(Arrays.asList(a, new TreeMap<String, String>())));
+	}
+
+
 	@Test
 	public void invertMap() {
 		Map<String, String> src = new HashMap<>();
@@ -117,6 +339,57 @@ public final class MapBuilderTest {
 	}
 
 
+	@Test
+	public void biMapTest() {
+		Map<String, String> src = new LinkedHashMap<>();
+		src.put("1", "a1");
+		src.put("2", "b2");
+		src.put("3", "a1");
+		Map<String, String> dst = new HashMap<>();
+		dst.put("z", "0");
+		Assert.assertFalse(MapBuilder.tryInvert(src, dst));
+		Assert.assertEquals(Collections.singletonMap("z", "0"), dst);
+		src.remove("3");
+
+		BiMap<String, String> bi = MapBuilder.biMap(src);
+		BiMap<String, String> inv = bi.inverse();
+		Assert.assertSame(bi, inv.inverse());
+		Assert.assertEquals("1", inv.get("a1"));
+		Assert.assertTrue(bi.containsValue("b2"));
+		CheckTask.assertException(() -> bi.put("3", "a1"));
+		bi.put("3", "c3");
+		Assert.assertEquals("3", inv.get("c3"));
+		Assert.assertEquals("c3", bi.forcePut("3", "c4"));
+		Assert.assertNull(inv.get("c3"));
+		bi.forcePut("4", "a1");
+		Assert.assertFalse(bi.containsKey("1"));
+		Assert.assertEquals("4", inv.get("a1"));
+		inv.remove("b2");
+		Assert.assertFalse(bi.containsKey("2"));
+		bi.values().remove("c4");
+		Assert.assertEquals(Collections.singletonMap("4", "a1"), bi);
+		Assert.assertEquals(Collections.singletonMap("a1", "4"), inv);
+		inv.entrySet().iterator().next().setValue("5");
+		Assert.assertEquals("a1", bi.get("5"));
+		Assert.assertFalse(bi.containsKey("4"));
+
+		Map<String, String> unique = new HashMap<>();
+		for(int i = 0; i < 20; i++) {
+			unique.put("k" + i, "v" + i);
+		}
+		BiMap<String, String> immutable = MapBuilder.immutableBiMap(unique);
+		Assert.assertEquals(unique, immutable);
+		Assert.assertEquals(MapBuilder.invert(unique), immutable.inverse());
+		Assert.assertEquals("k7", immutable.inverse().get("v7"));
+		Assert.assertTrue(immutable.containsValue("v19"));
+		CheckTask.assertException(() -> immutable.put("k0", "x"));
+		CheckTask.assertException(() -> immutable.inverse().forcePut("x", "k0"));
+		unique.put("dup", "v0");
+		CheckTask.assertException(() -> MapBuilder.immutableBiMap(unique));
+		CheckTask.assertException(() -> MapBuilder.biMap(unique));
+	}
+
+
 	@Test
 	public void enumNames() {
 		{
@@ -141,6 +414,148 @@ public final class MapBuilderTest {
 	}
 
 
+	@Test
+	public void enumNamesPerfectHash() {
+		for(Class<? extends Enum<?>> cls : Arrays.<Class<? extends Enum<?>>>asList(RetentionPolicy.class, ChronoUnit.class, Character.UnicodeScript.class)) {
+			checkEnumNames(cls);
+		}
+
+		// 'Aa' and 'BB' have the same hash code, so the keys can not be perfectly hashed
+		Map<String, RetentionPolicy> colliding = MapBuilder.immutableEnumNames(RetentionPolicy.class, (r) -> r == RetentionPolicy.SOURCE ? "Aa" : (r == RetentionPolicy.CLASS ? "BB" : null));
+		Assert.assertEquals(3, colliding.size());
+		Assert.assertEquals(RetentionPolicy.SOURCE, colliding.get("Aa"));
+		Assert.assertEquals(RetentionPolicy.CLASS, colliding.get("BB"));
+		Assert.assertEquals(RetentionPolicy.RUNTIME, colliding.get(null));
+
+		Map<Integer, RetentionPolicy> duplicates = MapBuilder.immutableEnumNames(RetentionPolicy.class, (r) -> r.ordinal() / 2);
+		Assert.assertEquals(2, duplicates.size());
+		Assert.assertEquals(RetentionPolicy.CLASS, duplicates.get(0));
+		Assert.assertEquals(RetentionPolicy.RUNTIME, duplicates.get(1));
+		Assert.assertTrue(MapBuilder.immutableEnumNames(EmptyEnum.class).isEmpty());
+	}
+
+
+	@Test
+	public void sharedEnumNames() {
+		Map<String, RetentionPolicy> names = MapBuilder.sharedEnumNames(RetentionPolicy.class);
+		Assert.assertSame(names, MapBuilder.sharedEnumNames(RetentionPolicy.class));
+		Assert.assertSame(names, MapBuilder.immutableEnumNames(RetentionPolicy.class));
+		Assert.assertEquals(RetentionPolicy.CLASS, names.get("CLASS"));
+
+		Map<String, RetentionPolicy> mutable = MapBuilder.mutableEnumNames(RetentionPolicy.class);
+		mutable.remove("CLASS");
+		Assert.assertEquals(3, names.size());
+
+		Map<String, RetentionPolicy> lower = MapBuilder.sharedEnumNames(RetentionPolicy.class, "lower", (r) -> r.name().toLowerCase());
+		Assert.assertEquals(RetentionPolicy.SOURCE, lower.get("source"));
+		Assert.assertSame(lower, MapBuilder.sharedEnumNames(RetentionPolicy.class, "lower", (r) -> r.name()));
+		Map<Integer, RetentionPolicy> ordinals = MapBuilder.sharedEnumNames(RetentionPolicy.class, "ordinal", (r) -> r.ordinal());
+		Assert.assertEquals(RetentionPolicy.CLASS, ordinals.get(1));
+		Assert.assertSame(ordinals, MapBuilder.sharedEnumNames(RetentionPolicy.class, "ordinal", (r) -> r.ordinal()));
+	}
+
+
+	@Test
+	public void mappedMapTest() throws IOException {
+		Map<String, Long> source = new HashMap<>();
+		for(int i = 0; i < 5000; i++) {
+			source.put("key-" + i, i * 31L);
+		}
+		source.put("", -1L);
+
+		// each case uses its own file, a file cannot be rewritten or deleted while it is mapped on some platforms
+		Path file = mappedTestFile();
+		MapBuilder.writeMapped(source, ElementCodec.utf8(), ElementCodec.longs(), file);
+		Map<String, Long> map = MapBuilder.openMapped(file, ElementCodec.utf8(), ElementCodec.longs());
+		Assert.assertEquals(source.size(), map.size());
+		Assert.assertEquals(Long.valueOf(31L * 4321), map.get("key-4321"));
+		Assert.assertEquals(Long.valueOf(-1L), map.get(""));
+		Assert.assertNull(map.get("key-5000"));
+		Assert.assertNull(map.get(null));
+		Assert.assertNull(map.get(42));
+		Assert.assertFalse(map.containsKey("key"));
+		Assert.assertEquals(source, map);
+		Assert.assertEquals(source, new HashMap<>(map));
+		CheckTask.assertException(() -> map.put("a", 1L));
+
+		Path emptyFile = mappedTestFile();
+		MapBuilder.writeMapped(Collections.<Integer, String>emptyMap(), ElementCodec.ints(), ElementCodec.utf8(), emptyFile);
+		Map<Integer, String> empty = MapBuilder.openMapped(emptyFile, ElementCodec.ints(), ElementCodec.utf8());
+		Assert.assertTrue(empty.isEmpty());
+		Assert.assertNull(empty.get(0));
+
+		Path nullKeyFile = mappedTestFile();
+		CheckTask.assertException(() -> MapBuilder.writeMapped(Collections.singletonMap(null, "a"), ElementCodec.utf8(), ElementCodec.utf8(), nullKeyFile));
+
+		Path zeroFile = mappedTestFile();
+		Files.write(zeroFile, new byte[64]);
+		CheckTask.assertException(() -> MapBuilder.openMapped(zeroFile, ElementCodec.utf8(), ElementCodec.utf8()));
+
+		// a corrupt table with no empty slots, lookups must fail instead of probing forever
+		Path fullFile = mappedTestFile();
+		ByteBuffer corrupt = ByteBuffer.allocate(36);
+		corrupt.putInt(0x4A434D48).putInt(1).putInt(1).putInt(2);
+		corrupt.putInt(0).putInt(32).putInt(0).putInt(32);
+		corrupt.putInt(0);
+		Files.write(fullFile, corrupt.array());
+		Map<String, String> full = MapBuilder.openMapped(fullFile, ElementCodec.utf8(), ElementCodec.utf8());
+		CheckTask.assertException(() -> full.get("a"));
+	}
+
+
+	/** A key which records the threads that hash it
+	 */
+	private static final class ThreadTrackingKey {
+		private final int id;
+		private final Set<Thread> threads;
+
+
+		ThreadTrackingKey(int id, Set<Thread> threads) {
+			this.id = id;
+			this.threads = threads;
+		}
+
+
+		@Override
+		public int hashCode() {
+			threads.add(Thread.currentThread());
+			return id;
+		}
+
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ThreadTrackingKey && ((ThreadTrackingKey)obj).id == id;
+		}
+
+	}
+
+
+	private static final Path mappedTestFile() throws IOException {
+		Path file = Files.createTempFile("mapped-map-test", ".bin");
+		// not deleted immediately, a mapped file cannot be deleted on some platforms until the mapping is garbage collected
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+
+	private static final <E extends Enum<E>> void checkEnumNames(Class<?> cls) {
+		@SuppressWarnings("unchecked")
+		Class<E> enumClass = (Class<E>)cls;
+		Map<String, E> map = MapBuilder.immutableEnumNames(enumClass);
+		Assert.assertEquals(MapBuilder.mutableEnumNames(enumClass), map);
+		for(E e : enumClass.getEnumConstants()) {
+			Assert.assertSame(e, map.get(e.name()));
+			Assert.assertNull(map.get(e.name() + "_"));
+		}
+		Assert.assertFalse(map.containsKey(null));
+	}
+
+
+	private static enum EmptyEnum {
+	}
+
+
 	public static final <K, V> void entriesEqual(List<? extends Map.Entry<K, V>> actual, List<? extends Map.Entry<K, V>> expected, Comparator<Entry<K, V>> comparator) {
 		// sort the lists since one came from a map
 		Collections.sort(expected, comparator);
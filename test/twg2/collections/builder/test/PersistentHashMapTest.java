@@ -0,0 +1,103 @@
+package twg2.collections.builder.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.collections.builder.MapBuilder;
+import twg2.collections.builder.PersistentHashMap;
+import checks.CheckTask;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class PersistentHashMapTest {
+
+	@Test
+	public void withWithoutTest() {
+		// 'Aa' and 'BB' have the same hash code, so every combination of them has the same hash code
+		List<String> keys = new ArrayList<>();
+		for(int i = 0; i < 16; i++) {
+			StringBuilder sb = new StringBuilder();
+			for(int b = 0; b < 4; b++) {
+				sb.append((i & (1 << b)) != 0 ? "Aa" : "BB");
+			}
+			keys.add(sb.toString());
+		}
+		for(int i = 0; i < 3000; i++) {
+			keys.add("k" + i);
+		}
+		keys.add(null);
+
+		PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+		Map<String, Integer> expect = new HashMap<>();
+		List<PersistentHashMap<String, Integer>> versions = new ArrayList<>();
+		List<Map<String, Integer>> expectVersions = new ArrayList<>();
+		Random rand = new Random(7);
+		for(int i = 0; i < 20000; i++) {
+			String key = keys.get(rand.nextInt(keys.size()));
+			if(rand.nextInt(3) == 0) {
+				expect.remove(key);
+				map = map.without(key);
+			}
+			else {
+				expect.put(key, i);
+				map = map.with(key, i);
+			}
+			if(i % 2000 == 0) {
+				versions.add(map);
+				expectVersions.add(new HashMap<>(expect));
+			}
+		}
+		Assert.assertEquals(expect.size(), map.size());
+		Assert.assertEquals(expect, map);
+		Assert.assertEquals(map, expect);
+		Assert.assertEquals(expect.hashCode(), map.hashCode());
+		for(String key : keys) {
+			Assert.assertEquals(expect.containsKey(key), map.containsKey(key));
+			Assert.assertEquals(expect.get(key), map.get(key));
+		}
+		// earlier versions are unaffected by later updates
+		for(int i = 0; i < versions.size(); i++) {
+			Assert.assertEquals(expectVersions.get(i), versions.get(i));
+		}
+
+		for(String key : keys) {
+			map = map.without(key);
+		}
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertFalse(map.entrySet().iterator().hasNext());
+	}
+
+
+	@Test
+	public void sharingAndBuilderTest() {
+		Map<String, String> base = new HashMap<>();
+		for(int i = 0; i < 100; i++) {
+			base.put("k" + i, "v" + i);
+		}
+		PersistentHashMap<String, String> snapshot = MapBuilder.persistent(base);
+		Assert.assertEquals(base, snapshot);
+		String v5 = snapshot.get("k5");
+		Assert.assertSame(snapshot, snapshot.with("k5", v5));
+		Assert.assertSame(snapshot, snapshot.without("missing"));
+
+		PersistentHashMap<String, String> updated = MapBuilder.concatPersistent(snapshot, Collections.singletonMap("k5", "new"), Collections.singletonMap("k100", "v100"));
+		Assert.assertEquals(101, updated.size());
+		Assert.assertEquals("new", updated.get("k5"));
+		Assert.assertEquals("v5", snapshot.get("k5"));
+		Assert.assertEquals(MapBuilder.concat(base, Collections.singletonMap("k5", "new"), Collections.singletonMap("k100", "v100")), updated);
+
+		CheckTask.assertException(() -> updated.put("a", "b"));
+		CheckTask.assertException(() -> updated.remove("k5"));
+		CheckTask.assertException(() -> updated.clear());
+	}
+
+}
@@ -0,0 +1,173 @@
+package twg2.collections.builder.test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.collections.builder.IntIntHashMap;
+import twg2.collections.builder.IntObjectHashMap;
+import twg2.collections.builder.LongLongHashMap;
+import twg2.collections.builder.LongObjectHashMap;
+import twg2.collections.builder.MapBuilder;
+import twg2.collections.builder.MapUtil;
+import checks.CheckTask;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class PrimitiveMapsTest {
+
+	@Test
+	public void intObjectMapTest() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>(2);
+		Map<Integer, String> expect = new HashMap<>();
+		Random rand = new Random(42);
+		for(int i = 0; i < 5000; i++) {
+			int key = rand.nextInt(2000) - 1000;
+			if(rand.nextInt(3) == 0) {
+				Assert.assertEquals(expect.remove(key), map.remove(key));
+			}
+			else {
+				Assert.assertEquals(expect.put(key, "v" + i), map.put(key, "v" + i));
+			}
+		}
+		Assert.assertEquals(expect.size(), map.size());
+		for(int key = -1000; key < 1000; key++) {
+			Assert.assertEquals(expect.containsKey(key), map.containsKey(key));
+			Assert.assertEquals(expect.get(key), map.get(key));
+		}
+
+		Map<Integer, String> entries = new HashMap<>();
+		map.forEach((k, v) -> entries.put(k, v));
+		Assert.assertEquals(expect, entries);
+		Assert.assertEquals(map.size(), map.keys().length);
+		Assert.assertEquals(expect.get(map.keys()[0]), map.values().get(0));
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertEquals("-", map.getOrDefault(0, "-"));
+	}
+
+
+	@Test
+	public void longObjectMapTest() {
+		LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+		long[] keys = { 0, 1L << 32, 2L << 32, -1, Long.MIN_VALUE, Long.MAX_VALUE };
+		for(int i = 0; i < keys.length; i++) {
+			Assert.assertNull(map.put(keys[i], i));
+		}
+		Assert.assertEquals(Integer.valueOf(0), map.remove(0));
+		Assert.assertEquals(Integer.valueOf(1), map.remove(1L << 32));
+		Assert.assertNull(map.remove(1L << 32));
+		Assert.assertEquals(4, map.size());
+		Assert.assertEquals(Integer.valueOf(2), map.get(2L << 32));
+		Assert.assertEquals(Integer.valueOf(5), map.get(Long.MAX_VALUE));
+
+		long[] remaining = map.keys();
+		Arrays.sort(remaining);
+		Assert.assertArrayEquals(new long[] { Long.MIN_VALUE, -1, 2L << 32, Long.MAX_VALUE }, remaining);
+	}
+
+
+	@Test
+	public void intIntMapTest() {
+		IntIntHashMap map = new IntIntHashMap(2);
+		Map<Integer, Integer> expect = new HashMap<>();
+		Random rand = new Random(42);
+		for(int i = 0; i < 5000; i++) {
+			int key = rand.nextInt(2000) - 1000;
+			int op = rand.nextInt(3);
+			if(op == 0) {
+				Integer prev = expect.remove(key);
+				Assert.assertEquals(prev != null ? prev : 0, map.remove(key));
+			}
+			else if(op == 1) {
+				Integer prev = expect.put(key, i);
+				Assert.assertEquals(prev != null ? prev : 0, map.put(key, i));
+			}
+			else {
+				int sum = expect.getOrDefault(key, 0) + 3;
+				expect.put(key, sum);
+				Assert.assertEquals(sum, map.addTo(key, 3));
+			}
+		}
+		Assert.assertEquals(expect.size(), map.size());
+		for(int key = -1000; key < 1000; key++) {
+			Assert.assertEquals(expect.containsKey(key), map.containsKey(key));
+			Assert.assertEquals((int)expect.getOrDefault(key, -1), map.getOrDefault(key, -1));
+		}
+		int[] keys = map.keys();
+		int[] values = map.values();
+		for(int i = 0; i < keys.length; i++) {
+			Assert.assertEquals((int)expect.get(keys[i]), values[i]);
+		}
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertFalse(map.containsKey(0));
+	}
+
+
+	@Test
+	public void longLongMapTest() {
+		LongLongHashMap map = new LongLongHashMap();
+		long[] keys = { 0, 1L << 32, 2L << 32, -1, Long.MIN_VALUE, Long.MAX_VALUE };
+		for(int i = 0; i < keys.length; i++) {
+			Assert.assertEquals(0, map.put(keys[i], i * 10L));
+		}
+		Assert.assertEquals(0, map.remove(0));
+		Assert.assertEquals(10, map.remove(1L << 32));
+		Assert.assertFalse(map.containsKey(1L << 32));
+		Assert.assertEquals(4, map.size());
+		Assert.assertEquals(20, map.get(2L << 32));
+		Assert.assertEquals(57, map.addTo(Long.MAX_VALUE, 7));
+		Assert.assertEquals(1, map.addTo(3L << 32, 1));
+
+		long[] remaining = map.keys();
+		Arrays.sort(remaining);
+		Assert.assertArrayEquals(new long[] { Long.MIN_VALUE, -1, 2L << 32, 3L << 32, Long.MAX_VALUE }, remaining);
+	}
+
+
+	@Test
+	public void primitiveMapBuilderTest() {
+		IntObjectHashMap<String> io = MapBuilder.intObjectMap(new int[] { 1, 2, 3 }, new String[] { "a", "b", "c" }, true);
+		Assert.assertEquals("b", io.get(2));
+		CheckTask.assertException(() -> MapBuilder.intObjectMap(new int[] { 1, 1 }, new String[] { "a", "b" }, true));
+		CheckTask.assertException(() -> MapBuilder.intObjectMap(new int[] { 1 }, new String[] { "a", "b" }, false));
+		Assert.assertEquals("b", MapBuilder.intObjectMap(new int[] { 1, 1 }, new String[] { "a", "b" }, false).get(1));
+
+		LongObjectHashMap<String> lo = MapBuilder.longObjectMap(Arrays.asList(5L, 6L), Arrays.asList("x", "y"), true);
+		Assert.assertEquals("y", lo.get(6));
+		Map<Long, String> entries = new HashMap<>();
+		entries.put(7L, "z");
+		Assert.assertEquals("z", MapBuilder.longObjectMap(entries.entrySet().iterator()).get(7));
+
+		IntIntHashMap ii = MapBuilder.intIntMap(new int[] { 0, 4, 8 }, new int[] { 1, 2, 3 }, true);
+		Assert.assertEquals(3, ii.get(8));
+		Assert.assertEquals(1, ii.get(0));
+		Map<Integer, Integer> intEntries = new HashMap<>();
+		intEntries.put(9, 90);
+		Assert.assertEquals(90, MapBuilder.intIntMap(intEntries.entrySet().iterator()).get(9));
+		CheckTask.assertException(() -> MapBuilder.intIntMap(Arrays.asList(1, 1), Arrays.asList(2, 3), true));
+
+		LongLongHashMap ll = MapBuilder.longLongMap(new long[] { 10, 20, 30 }, new long[] { 100, 200, 300 }, false);
+		LongLongHashMap doubled = MapUtil.mapValues(ll, (v) -> v * 2);
+		Assert.assertEquals(600, doubled.get(30));
+		Assert.assertEquals(300, ll.get(30));
+		LongLongHashMap small = MapUtil.filterKeys(ll, (k) -> k < 25);
+		Assert.assertEquals(2, small.size());
+		Assert.assertFalse(small.containsKey(30));
+
+		IntObjectHashMap<Integer> lengths = MapUtil.mapValues(io, String::length);
+		Assert.assertEquals(Integer.valueOf(1), lengths.get(3));
+		Assert.assertEquals(2, MapUtil.filterKeys(io, (k) -> k != 2).size());
+		Assert.assertEquals(4, MapUtil.mapValues(ii, (v) -> v + 1).get(8));
+		Assert.assertEquals(1, MapUtil.filterKeys(lo, (k) -> k == 5).size());
+	}
+
+}